@@ -17,6 +17,9 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import me.zhanghai.android.douya.account.util.AccountUtils;
 import me.zhanghai.android.douya.util.IoUtils;
@@ -35,6 +38,10 @@ import me.zhanghai.android.douya.util.IoUtils;
  * so {@link #putStringSet(String, Set)} needs to flatten the {@link String} array into one
  * {@link String}, in this case the character bar ('|') is used as the delimiter.</p>
  *
+ * <p>Values are cached in memory after they are first read, and changes are written back to
+ * {@link AccountManager} in order on a background thread, similar to
+ * {@link SharedPreferences.Editor#apply()}. {@link #commit()} waits for the pending writes.</p>
+ *
  * @see SharedPreferences
  * @see AccountManager
  */
@@ -48,8 +55,12 @@ public class AccountPreferences implements SharedPreferences, SharedPreferences.
     // lose registered listeners.
     private static final Map<Account, AccountPreferences> INSTANCES = new HashMap<>();
 
+    private static final ExecutorService WRITE_EXECUTOR = Executors.newSingleThreadExecutor();
+
     private AccountManager mAccountManager = AccountUtils.getAccountManager();
     private Account mAccount;
+    // Values read or written, including null for absence.
+    private final Map<String, String> mValues = new HashMap<>();
     private Handler mainHandler = new Handler(Looper.getMainLooper());
     private Set<OnSharedPreferenceChangeListener> listeners = Collections.newSetFromMap(
             new WeakHashMap<OnSharedPreferenceChangeListener, Boolean>());
@@ -77,7 +88,15 @@ public class AccountPreferences implements SharedPreferences, SharedPreferences.
      */
     @Override
     public String getString(String key, String defaultValue) {
-        String value = mAccountManager.getUserData(mAccount, key);
+        String value;
+        synchronized (mValues) {
+            if (mValues.containsKey(key)) {
+                value = mValues.get(key);
+            } else {
+                value = mAccountManager.getUserData(mAccount, key);
+                mValues.put(key, value);
+            }
+        }
         return value != null ? value : defaultValue;
     }
 
@@ -210,7 +229,10 @@ public class AccountPreferences implements SharedPreferences, SharedPreferences.
      */
     @Override
     public AccountPreferences putString(String key, String value) {
-        mAccountManager.setUserData(mAccount, key, value);
+        synchronized (mValues) {
+            mValues.put(key, value);
+        }
+        WRITE_EXECUTOR.execute(() -> mAccountManager.setUserData(mAccount, key, value));
         notifyChanged(key);
         return this;
     }
@@ -282,27 +304,43 @@ public class AccountPreferences implements SharedPreferences, SharedPreferences.
     }
 
     /**
-     * Stub method.
+     * Wait for changes to be written to {@link AccountManager}.
      *
-     * Due to the limitation of {@link AccountManager}, we cannot batch commit changes, so nothing
-     * is done and it will always success.
+     * Due to the limitation of {@link AccountManager}, we cannot batch commit changes, so changes
+     * have already been applied one by one.
      *
-     * @return Always returns true.
+     * @return Returns whether the pending writes have finished.
      */
     @Override
     public boolean commit() {
-        return true;
+        try {
+            WRITE_EXECUTOR.submit(() -> {}).get();
+            return true;
+        } catch (ExecutionException | InterruptedException e) {
+            e.printStackTrace();
+            return false;
+        }
     }
 
     /**
      * Stub method.
      *
-     * Due to the limitation of {@link AccountManager}, we cannot batch commit changes, so nothing
-     * is done.
+     * Due to the limitation of {@link AccountManager}, we cannot batch commit changes, and changes
+     * are already being written asynchronously, so nothing is done.
      */
     @Override
     public void apply() {}
 
+    /**
+     * Drop the values cached in memory, e.g. when an account with the same name has been re-added
+     * and its data in {@link AccountManager} is no longer the same.
+     */
+    public void invalidateCache() {
+        synchronized (mValues) {
+            mValues.clear();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
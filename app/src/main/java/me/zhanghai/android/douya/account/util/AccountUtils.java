@@ -17,16 +17,20 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
 import android.text.TextUtils;
+import androidx.core.util.Pair;
 
 import com.google.gson.JsonParseException;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import me.zhanghai.android.douya.DouyaApplication;
 import me.zhanghai.android.douya.account.app.AccountPreferences;
 import me.zhanghai.android.douya.account.info.AccountContract;
 import me.zhanghai.android.douya.account.ui.AddAccountActivity;
 import me.zhanghai.android.douya.account.ui.SelectAccountActivity;
+import me.zhanghai.android.douya.network.AuthTokenCache;
 import me.zhanghai.android.douya.network.api.ApiAuthenticators;
 import me.zhanghai.android.douya.network.api.info.apiv2.User;
 import me.zhanghai.android.douya.settings.info.Settings;
@@ -34,6 +38,20 @@ import me.zhanghai.android.douya.util.GsonHelper;
 
 public class AccountUtils {
 
+    // Parsed users by account, along with the JSON they were parsed from.
+    private static final Map<Account, Pair<String, User>> sUsers = new HashMap<>();
+
+    private static final Object sActiveAccountStateLock = new Object();
+    // Snapshot for hot paths like SimpleUser.isOneself(), so that they don't need IPCs into
+    // AccountManager.
+    private static volatile ActiveAccountState sActiveAccountState;
+    private static int sActiveAccountStateGeneration;
+    private static boolean sActiveAccountStateListenerAdded;
+    // AccountManager calls listeners in no particular order, so ours wrap the listeners of the app
+    // to invalidate the snapshot before any of them can read it.
+    private static final Map<OnAccountsUpdateListener, OnAccountsUpdateListener>
+            sAccountListUpdatedListeners = new HashMap<>();
+
     public static AccountManager getAccountManager() {
         return AccountManager.get(DouyaApplication.getInstance());
     }
@@ -54,7 +72,12 @@ public class AccountUtils {
     }
 
     public static boolean addAccountExplicitly(Account account, String password) {
-        return getAccountManager().addAccountExplicitly(account, password, null);
+        boolean added = getAccountManager().addAccountExplicitly(account, password, null);
+        if (added) {
+            // Drop any value cached for a previously removed account with the same name.
+            AccountPreferences.forAccount(account).invalidateCache();
+        }
+        return added;
     }
 
     public static AccountManagerFuture<Bundle> updatePassword(Activity activity, Account account,
@@ -123,11 +146,27 @@ public class AccountUtils {
     }
 
     public static void addOnAccountListUpdatedListener(OnAccountsUpdateListener listener) {
-        getAccountManager().addOnAccountsUpdatedListener(listener, null, false);
+        OnAccountsUpdateListener wrapper = accounts -> {
+            invalidateActiveAccountState();
+            listener.onAccountsUpdated(accounts);
+        };
+        synchronized (sAccountListUpdatedListeners) {
+            if (sAccountListUpdatedListeners.containsKey(listener)) {
+                return;
+            }
+            sAccountListUpdatedListeners.put(listener, wrapper);
+        }
+        getAccountManager().addOnAccountsUpdatedListener(wrapper, null, false);
     }
 
     public static void removeOnAccountListUpdatedListener(OnAccountsUpdateListener listener) {
-        getAccountManager().removeOnAccountsUpdatedListener(listener);
+        OnAccountsUpdateListener wrapper;
+        synchronized (sAccountListUpdatedListeners) {
+            wrapper = sAccountListUpdatedListeners.remove(listener);
+        }
+        if (wrapper != null) {
+            getAccountManager().removeOnAccountsUpdatedListener(wrapper);
+        }
     }
 
     public static Account[] getAccounts() {
@@ -184,6 +223,10 @@ public class AccountUtils {
     // Will clear the invalid setting and return null if no matching account with the name from
     // setting is found.
     public static Account getActiveAccount() {
+        return getActiveAccountState().account;
+    }
+
+    private static Account loadActiveAccount() {
         Account account = getAccountByName(getActiveAccountName());
         if (account != null) {
             return account;
@@ -197,11 +240,13 @@ public class AccountUtils {
 
         if (account == null) {
             removeActiveAccountName();
+            invalidateActiveAccountState();
             return;
         }
 
         Account oldActiveAccount = getActiveAccount();
         setActiveAccountName(account.name);
+        invalidateActiveAccountState();
         if (oldActiveAccount != null) {
             if (TextUtils.equals(getRecentOneAccountName(), account.name)) {
                 setRecentOneAccountName(oldActiveAccount.name);
@@ -384,10 +429,12 @@ public class AccountUtils {
 
     public static void setAuthToken(Account account, String type, String authToken) {
         getAccountManager().setAuthToken(account, type, authToken);
+        AuthTokenCache.put(account, type, authToken);
     }
 
     public static void invalidateAuthToken(String authToken) {
         getAccountManager().invalidateAuthToken(AccountContract.ACCOUNT_TYPE, authToken);
+        AuthTokenCache.remove(authToken);
     }
 
     // User name is different from username: user name is the display name in User.name, but
@@ -398,11 +445,12 @@ public class AccountUtils {
     }
 
     public static String getUserName() {
-        return getUserName(getActiveAccount());
+        return getActiveAccountState().userName;
     }
 
     public static void setUserName(Account account, String userName) {
         AccountPreferences.forAccount(account).putString(AccountContract.KEY_USER_NAME, userName);
+        invalidateActiveAccountState();
     }
 
     public static long getUserId(Account account) {
@@ -411,11 +459,12 @@ public class AccountUtils {
     }
 
     public static long getUserId() {
-        return getUserId(getActiveAccount());
+        return getActiveAccountState().userId;
     }
 
     public static void setUserId(Account account, long userId) {
         AccountPreferences.forAccount(account).putLong(AccountContract.KEY_USER_ID, userId);
+        invalidateActiveAccountState();
     }
 
     public static String getRefreshToken(Account account, String authTokenType) {
@@ -442,27 +491,93 @@ public class AccountUtils {
     public static User getUser(Account account) {
         String userInfoJson = AccountPreferences.forAccount(account).getString(
                 AccountContract.KEY_USER_INFO, null);
+        synchronized (sUsers) {
+            Pair<String, User> jsonAndUser = sUsers.get(account);
+            if (jsonAndUser != null && TextUtils.equals(jsonAndUser.first, userInfoJson)) {
+                return jsonAndUser.second;
+            }
+        }
+        User user = null;
         if (!TextUtils.isEmpty(userInfoJson)) {
             try {
-                return GsonHelper.GSON.fromJson(userInfoJson, User.class);
+                user = GsonHelper.GSON.fromJson(userInfoJson, User.class);
             } catch (JsonParseException e) {
                 e.printStackTrace();
             }
         }
-        return null;
+        synchronized (sUsers) {
+            sUsers.put(account, new Pair<>(userInfoJson, user));
+        }
+        return user;
     }
 
     public static void setUser(Account account, User user) {
         String userInfoJson = GsonHelper.GSON.toJson(user, User.class);
         AccountPreferences.forAccount(account).putString(AccountContract.KEY_USER_INFO,
                 userInfoJson);
+        invalidateActiveAccountState();
     }
 
     public static User getUser() {
-        return getUser(getActiveAccount());
+        return getActiveAccountState().user;
     }
 
     public static void setUser(User user) {
         setUser(getActiveAccount(), user);
     }
+
+    private static ActiveAccountState getActiveAccountState() {
+        ActiveAccountState state = sActiveAccountState;
+        if (state != null) {
+            return state;
+        }
+        int generation;
+        synchronized (sActiveAccountStateLock) {
+            if (!sActiveAccountStateListenerAdded) {
+                getAccountManager().addOnAccountsUpdatedListener(
+                        accounts -> invalidateActiveAccountState(), null, false);
+                sActiveAccountStateListenerAdded = true;
+            }
+            generation = sActiveAccountStateGeneration;
+        }
+        state = ActiveAccountState.load();
+        synchronized (sActiveAccountStateLock) {
+            // Don't cache a state that has been invalidated while loading.
+            if (generation == sActiveAccountStateGeneration) {
+                sActiveAccountState = state;
+            }
+        }
+        return state;
+    }
+
+    private static void invalidateActiveAccountState() {
+        synchronized (sActiveAccountStateLock) {
+            sActiveAccountState = null;
+            ++sActiveAccountStateGeneration;
+        }
+    }
+
+    private static class ActiveAccountState {
+
+        public final Account account;
+        public final long userId;
+        public final String userName;
+        public final User user;
+
+        private ActiveAccountState(Account account, long userId, String userName, User user) {
+            this.account = account;
+            this.userId = userId;
+            this.userName = userName;
+            this.user = user;
+        }
+
+        public static ActiveAccountState load() {
+            Account account = loadActiveAccount();
+            if (account == null) {
+                return new ActiveAccountState(null, AccountContract.INVALID_USER_ID, null, null);
+            }
+            return new ActiveAccountState(account, getUserId(account), getUserName(account),
+                    getUser(account));
+        }
+    }
 }
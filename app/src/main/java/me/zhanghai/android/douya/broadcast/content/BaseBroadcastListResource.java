@@ -8,6 +8,7 @@ package me.zhanghai.android.douya.broadcast.content;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -22,6 +23,8 @@ import me.zhanghai.android.douya.network.api.info.frodo.BroadcastList;
 public abstract class BaseBroadcastListResource
         extends MoreBaseListResourceFragment<BroadcastList, Broadcast> {
 
+    private final BroadcastListIndex mBroadcastListIndex = new BroadcastListIndex();
+
     @Override
     protected void onLoadStarted() {
         getListener().onLoadBroadcastListStarted(getRequestCode());
@@ -42,9 +45,11 @@ public abstract class BaseBroadcastListResource
                 getListener().onBroadcastListChanged(getRequestCode(),
                         Collections.unmodifiableList(get()));
             }
+            List<BroadcastUpdatedEvent> events = new ArrayList<>(response.size());
             for (Broadcast broadcast : response) {
-                EventBusUtils.postAsync(new BroadcastUpdatedEvent(broadcast, this));
+                events.add(new BroadcastUpdatedEvent(broadcast, this));
             }
+            EventBusUtils.postAsyncBatch(events);
         } else {
             getListener().onLoadBroadcastListFinished(getRequestCode());
             getListener().onLoadBroadcastListError(getRequestCode(), error);
@@ -59,11 +64,14 @@ public abstract class BaseBroadcastListResource
         }
 
         List<Broadcast> broadcastList = get();
-        for (int i = 0, size = broadcastList.size(); i < size; ++i) {
-            Broadcast updatedBroadcast = event.update(broadcastList.get(i), this);
+        for (int position : mBroadcastListIndex.getPositions(broadcastList,
+                event.getBroadcastId())) {
+            Broadcast oldBroadcast = broadcastList.get(position);
+            Broadcast updatedBroadcast = event.update(oldBroadcast, this);
             if (updatedBroadcast != null) {
-                broadcastList.set(i, updatedBroadcast);
-                getListener().onBroadcastChanged(getRequestCode(), i, updatedBroadcast);
+                broadcastList.set(position, updatedBroadcast);
+                mBroadcastListIndex.onBroadcastReplaced(position, oldBroadcast, updatedBroadcast);
+                getListener().onBroadcastChanged(getRequestCode(), position, updatedBroadcast);
             }
         }
     }
@@ -76,27 +84,32 @@ public abstract class BaseBroadcastListResource
         }
 
         List<Broadcast> broadcastList = get();
-        for (int i = 0, size = broadcastList.size(); i < size; ) {
-            Broadcast broadcast = broadcastList.get(i);
+        int[] positions = mBroadcastListIndex.getPositions(broadcastList, event.broadcastId);
+        if (positions.length == 0) {
+            return;
+        }
+        // Iterate backwards so that removals don't shift the positions yet to be visited.
+        for (int i = positions.length - 1; i >= 0; --i) {
+            int position = positions[i];
+            Broadcast broadcast = broadcastList.get(position);
             if (broadcast.id == event.broadcastId) {
-                broadcastList.remove(i);
-                getListener().onBroadcastRemoved(getRequestCode(), i);
-                --size;
+                broadcastList.remove(position);
+                getListener().onBroadcastRemoved(getRequestCode(), position);
             } else {
                 if (broadcast.parentBroadcast != null
                         && broadcast.parentBroadcast.id == event.broadcastId) {
                     // Same behavior as Frodo API.
-                    // FIXME: Won't reach here if another list shares this broadcast instance.
                     broadcast.parentBroadcast = null;
-                    getListener().onBroadcastChanged(getRequestCode(), i, broadcast);
                 } else if (broadcast.rebroadcastedBroadcast != null
                         && broadcast.rebroadcastedBroadcast.id == event.broadcastId) {
                     broadcast.rebroadcastedBroadcast.isDeleted = true;
-                    getListener().onBroadcastChanged(getRequestCode(), i, broadcast);
                 }
-                ++i;
+                // Otherwise another list sharing this broadcast instance has already updated it,
+                // and we still need to notify our listener.
+                getListener().onBroadcastChanged(getRequestCode(), position, broadcast);
             }
         }
+        mBroadcastListIndex.invalidate();
     }
 
     private Listener getListener() {
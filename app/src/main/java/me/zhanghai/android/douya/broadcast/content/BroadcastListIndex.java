@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.broadcast.content;
+
+import androidx.annotation.NonNull;
+import androidx.collection.LongSparseArray;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import me.zhanghai.android.douya.network.api.info.frodo.Broadcast;
+
+/**
+ * Index from broadcast id to the positions in a broadcast list that reference it, either directly
+ * or as the parent or rebroadcasted broadcast, so that an update to a broadcast only needs to look
+ * at the positions involved.
+ * <p>
+ * The index is rebuilt lazily whenever the list instance or its size changes. Replacing an element
+ * in place should be reported with {@link #onBroadcastReplaced(int, Broadcast, Broadcast)}, and
+ * other structural changes that keep the size should be followed by {@link #invalidate()}.
+ * Because broadcast instances can be shared and mutated by other lists, positions returned may be
+ * stale and callers should check the broadcast at each position.
+ * <p>
+ * Not thread safe, should only be used on the main thread.
+ */
+public class BroadcastListIndex {
+
+    private static final int[] EMPTY_POSITIONS = new int[0];
+
+    private List<Broadcast> mBroadcastList;
+    private int mSize;
+
+    private final LongSparseArray<List<Integer>> mPositions = new LongSparseArray<>();
+
+    @NonNull
+    public int[] getPositions(@NonNull List<Broadcast> broadcastList, long broadcastId) {
+        ensureIndex(broadcastList);
+        List<Integer> positions = mPositions.get(broadcastId);
+        if (positions == null || positions.isEmpty()) {
+            return EMPTY_POSITIONS;
+        }
+        int[] positionArray = new int[positions.size()];
+        for (int i = 0; i < positionArray.length; ++i) {
+            positionArray[i] = positions.get(i);
+        }
+        return positionArray;
+    }
+
+    public void invalidate() {
+        mBroadcastList = null;
+        mPositions.clear();
+    }
+
+    public void onBroadcastReplaced(int position, @NonNull Broadcast oldBroadcast,
+                                    @NonNull Broadcast newBroadcast) {
+        if (mBroadcastList == null) {
+            return;
+        }
+        removePosition(oldBroadcast.id, position);
+        if (oldBroadcast.parentBroadcast != null) {
+            removePosition(oldBroadcast.parentBroadcast.id, position);
+        }
+        if (oldBroadcast.rebroadcastedBroadcast != null) {
+            removePosition(oldBroadcast.rebroadcastedBroadcast.id, position);
+        }
+        addPositions(newBroadcast, position);
+    }
+
+    private void ensureIndex(@NonNull List<Broadcast> broadcastList) {
+        if (broadcastList == mBroadcastList && broadcastList.size() == mSize) {
+            return;
+        }
+        mPositions.clear();
+        for (int i = 0, size = broadcastList.size(); i < size; ++i) {
+            addPositions(broadcastList.get(i), i);
+        }
+        mBroadcastList = broadcastList;
+        mSize = broadcastList.size();
+    }
+
+    private void addPositions(@NonNull Broadcast broadcast, int position) {
+        addPosition(broadcast.id, position);
+        if (broadcast.parentBroadcast != null) {
+            addPosition(broadcast.parentBroadcast.id, position);
+        }
+        if (broadcast.rebroadcastedBroadcast != null) {
+            addPosition(broadcast.rebroadcastedBroadcast.id, position);
+        }
+    }
+
+    private void addPosition(long broadcastId, int position) {
+        List<Integer> positions = mPositions.get(broadcastId);
+        if (positions == null) {
+            positions = new ArrayList<>(1);
+            mPositions.put(broadcastId, positions);
+        }
+        // Keep positions sorted and unique.
+        int index = Collections.binarySearch(positions, position);
+        if (index < 0) {
+            positions.add(-index - 1, position);
+        }
+    }
+
+    private void removePosition(long broadcastId, int position) {
+        List<Integer> positions = mPositions.get(broadcastId);
+        if (positions == null) {
+            return;
+        }
+        int index = Collections.binarySearch(positions, position);
+        if (index >= 0) {
+            positions.remove(index);
+        }
+    }
+}
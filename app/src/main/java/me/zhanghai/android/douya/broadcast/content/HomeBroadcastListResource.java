@@ -79,7 +79,8 @@ public class HomeBroadcastListResource extends TimelineBroadcastListResource {
 
         mStopped = true;
 
-        if (!isEmpty()) {
+        // The cache is for showing the top of the timeline upon start.
+        if (!isEmpty() && !hasPagesBefore()) {
             saveToCache(get());
         }
     }
@@ -164,6 +165,10 @@ public class HomeBroadcastListResource extends TimelineBroadcastListResource {
     }
 
     private void prependBroadcast(Broadcast broadcast) {
+        if (hasPagesBefore()) {
+            // The top of the timeline isn't in memory, and will be loaded again upon refresh.
+            return;
+        }
         List<Broadcast> broadcastList = get();
         broadcastList.add(0, broadcast);
         getListener().onBroadcastInserted(getRequestCode(), 0, broadcast);
@@ -14,14 +14,18 @@ import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 import androidx.core.content.ContextCompat;
 import androidx.core.util.ObjectsCompat;
 import android.text.TextUtils;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import me.zhanghai.android.douya.R;
 import me.zhanghai.android.douya.app.Notifications;
@@ -44,6 +48,14 @@ import me.zhanghai.android.douya.util.ToastUtils;
 
 class SendBroadcastWriter extends ResourceWriter<SendBroadcastWriter> {
 
+    private static final int MAX_CONCURRENT_IMAGE_UPLOADS = 3;
+    private static final int MAX_IMAGE_UPLOAD_RETRIES = 2;
+    private static final long IMAGE_UPLOAD_PROGRESS_INTERVAL_MILLIS = 500;
+
+    private static final int PROGRESS_MAX = 100;
+
+    private static final Handler sMainThreadHandler = new Handler(Looper.getMainLooper());
+
     private static int sNextId = 1;
 
     private long mId;
@@ -54,10 +66,20 @@ class SendBroadcastWriter extends ResourceWriter<SendBroadcastWriter> {
     private String mLinkUrl;
 
     private boolean mHasImages;
-    private List<String> mUploadedImageUrls;
+    private String[] mUploadedImageUrls;
+    private int mUploadedImageCount;
+    private int mNextImageToUpload;
+    private ApiRequest<?>[] mImageUploadRequests;
+    private int[] mImageUploadRetryCounts;
+    // Written from the threads uploading the images.
+    private AtomicLongArray mImageUploadBytesWritten;
+    private AtomicLongArray mImageUploadContentLengths;
+    private final AtomicBoolean mImageUploadProgressUpdatePending = new AtomicBoolean();
 
     private ApiRequest<?> mRequest;
 
+    private boolean mDestroyed;
+
     SendBroadcastWriter(String text, List<Uri> imageUris, String linkTitle, String linkUrl,
                         ResourceWriterManager<SendBroadcastWriter> manager) {
         super(manager);
@@ -72,7 +94,12 @@ class SendBroadcastWriter extends ResourceWriter<SendBroadcastWriter> {
 
         mHasImages = !CollectionUtils.isEmpty(mImageUris);
         if (mHasImages) {
-            mUploadedImageUrls = new ArrayList<>();
+            int imageCount = mImageUris.size();
+            mUploadedImageUrls = new String[imageCount];
+            mImageUploadRequests = new ApiRequest<?>[imageCount];
+            mImageUploadRetryCounts = new int[imageCount];
+            mImageUploadBytesWritten = new AtomicLongArray(imageCount);
+            mImageUploadContentLengths = new AtomicLongArray(imageCount);
         }
     }
 
@@ -108,6 +135,10 @@ class SendBroadcastWriter extends ResourceWriter<SendBroadcastWriter> {
 
     @Override
     public void onDestroy() {
+        mDestroyed = true;
+        if (mHasImages) {
+            cancelImageUploads();
+        }
         if (mRequest != null) {
             mRequest.cancel();
             mRequest = null;
@@ -132,55 +163,121 @@ class SendBroadcastWriter extends ResourceWriter<SendBroadcastWriter> {
 
     private void sendWithImages() {
         ToastUtils.show(R.string.broadcast_sending, getContext());
-        continueSendingWithImages();
+        createNotificationChannel();
+        updateImageUploadNotification();
+        // Images are uploaded concurrently, and each finished upload starts the next one.
+        for (int i = 0; i < MAX_CONCURRENT_IMAGE_UPLOADS; ++i) {
+            uploadNextImage();
+        }
     }
 
-    private void continueSendingWithImages() {
-        if (mUploadedImageUrls.size() < mImageUris.size()) {
-            Context context = getContext();
-            String notificationText = context.getString(
-                    R.string.broadcast_sending_notification_text_uploading_images_format,
-                    mUploadedImageUrls.size() + 1, mImageUris.size());
-            startForeground(notificationText);
-            ApiRequest<UploadedImage> request = ApiService.getInstance().uploadBroadcastImage(
-                    mImageUris.get(mUploadedImageUrls.size()), context);
-            request.enqueue(new ApiRequest.Callback<UploadedImage>() {
-                @Override
-                public void onResponse(UploadedImage response) {
-                    onImageUploadSuccess(response);
-                }
-                @Override
-                public void onErrorResponse(ApiError error) {
-                    onErrorWithImages(error);
-                }
-            });
-            mRequest = request;
-        } else {
-            startForeground(getContext().getString(
-                    R.string.broadcast_sending_notification_text_sending));
-            ApiRequest<Broadcast> request = ApiService.getInstance().sendBroadcast(mText,
-                    mUploadedImageUrls, null, null);
-            request.enqueue(new ApiRequest.Callback<Broadcast>() {
-                @Override
-                public void onResponse(Broadcast response) {
-                    onSuccessWithImages(response);
-                }
-                @Override
-                public void onErrorResponse(ApiError error) {
-                    onErrorWithImages(error);
+    private void uploadNextImage() {
+        if (mNextImageToUpload < mImageUris.size()) {
+            uploadImage(mNextImageToUpload);
+            ++mNextImageToUpload;
+        }
+    }
+
+    private void uploadImage(int index) {
+        ApiRequest<UploadedImage> request = ApiService.getInstance().uploadBroadcastImage(
+                mImageUris.get(index), (bytesWritten, contentLength) -> onImageUploadProgress(
+                        index, bytesWritten, contentLength), getContext());
+        request.enqueue(new ApiRequest.Callback<UploadedImage>() {
+            @Override
+            public void onResponse(UploadedImage response) {
+                onImageUploadSuccess(index, response);
+            }
+            @Override
+            public void onErrorResponse(ApiError error) {
+                onImageUploadError(index, error);
+            }
+        });
+        mImageUploadRequests[index] = request;
+    }
+
+    private void cancelImageUploads() {
+        for (int i = 0; i < mImageUploadRequests.length; ++i) {
+            ApiRequest<?> request = mImageUploadRequests[i];
+            if (request != null) {
+                request.cancel();
+                mImageUploadRequests[i] = null;
+            }
+        }
+    }
+
+    // Called on the threads uploading the images.
+    private void onImageUploadProgress(int index, long bytesWritten, long contentLength) {
+        mImageUploadBytesWritten.set(index, bytesWritten);
+        mImageUploadContentLengths.set(index, contentLength);
+        if (mImageUploadProgressUpdatePending.compareAndSet(false, true)) {
+            sMainThreadHandler.postDelayed(() -> {
+                mImageUploadProgressUpdatePending.set(false);
+                if (!mDestroyed && mUploadedImageCount < mImageUris.size()) {
+                    updateImageUploadNotification();
                 }
-            });
-            mRequest = request;
+            }, IMAGE_UPLOAD_PROGRESS_INTERVAL_MILLIS);
         }
     }
 
-    private void startForeground(CharSequence contentText) {
-        if (mUploadedImageUrls.isEmpty()) {
-            createNotificationChannel();
+    private void updateImageUploadNotification() {
+        int imageCount = mImageUris.size();
+        long totalBytesWritten = 0;
+        long totalContentLength = 0;
+        int knownImageCount = 0;
+        int uploadedUnknownImageCount = 0;
+        for (int i = 0; i < imageCount; ++i) {
+            long contentLength = mImageUploadContentLengths.get(i);
+            if (contentLength <= 0) {
+                if (mUploadedImageUrls[i] != null) {
+                    ++uploadedUnknownImageCount;
+                }
+                continue;
+            }
+            long bytesWritten = mUploadedImageUrls[i] != null ? contentLength
+                    : Math.min(mImageUploadBytesWritten.get(i), contentLength);
+            totalBytesWritten += bytesWritten;
+            totalContentLength += contentLength;
+            ++knownImageCount;
         }
+        // Lengths are only known after compression once an upload has started, so images with an
+        // unknown length are estimated with the average of the others.
+        if (knownImageCount > 0) {
+            long averageContentLength = totalContentLength / knownImageCount;
+            totalBytesWritten += uploadedUnknownImageCount * averageContentLength;
+            totalContentLength += (imageCount - knownImageCount) * averageContentLength;
+        }
+        int progress = totalContentLength > 0 ?
+                (int) (totalBytesWritten * PROGRESS_MAX / totalContentLength) : 0;
+        String notificationText = getContext().getString(
+                R.string.broadcast_sending_notification_text_uploading_images_format,
+                Math.min(mUploadedImageCount + 1, imageCount), imageCount);
+        startForeground(notificationText, progress, totalContentLength <= 0);
+    }
+
+    private void sendWithUploadedImages() {
+        startForeground(getContext().getString(
+                R.string.broadcast_sending_notification_text_sending), 0, true);
+        ApiRequest<Broadcast> request = ApiService.getInstance().sendBroadcast(mText,
+                Arrays.asList(mUploadedImageUrls), null, null);
+        request.enqueue(new ApiRequest.Callback<Broadcast>() {
+            @Override
+            public void onResponse(Broadcast response) {
+                onSuccessWithImages(response);
+            }
+            @Override
+            public void onErrorResponse(ApiError error) {
+                onErrorWithImages(error);
+            }
+        });
+        mRequest = request;
+    }
+
+    private void startForeground(CharSequence contentText, int progress, boolean indeterminate) {
         String contentTitle = getContext().getString(R.string.broadcast_sending_notification_title);
         Notification notification = createNotificationBuilder(contentTitle, contentText)
                 .setOngoing(true)
+                .setOnlyAlertOnce(true)
+                .setProgress(PROGRESS_MAX, progress, indeterminate)
                 .build();
         getService().startForeground(Notifications.Ids.SENDING_BROADCAST, notification);
     }
@@ -247,9 +344,36 @@ class SendBroadcastWriter extends ResourceWriter<SendBroadcastWriter> {
         stopSelf();
     }
 
-    private void onImageUploadSuccess(UploadedImage uploadedImage) {
-        mUploadedImageUrls.add(uploadedImage.url);
-        continueSendingWithImages();
+    private void onImageUploadSuccess(int index, UploadedImage uploadedImage) {
+        if (mDestroyed) {
+            return;
+        }
+        mImageUploadRequests[index] = null;
+        mUploadedImageUrls[index] = uploadedImage.url;
+        ++mUploadedImageCount;
+        if (mUploadedImageCount < mImageUris.size()) {
+            updateImageUploadNotification();
+            uploadNextImage();
+        } else {
+            sendWithUploadedImages();
+        }
+    }
+
+    private void onImageUploadError(int index, ApiError error) {
+        if (mDestroyed) {
+            // Canceled along with other uploads.
+            return;
+        }
+        mImageUploadRequests[index] = null;
+        // Retry only this image upon network failure, for which there is no response.
+        if (error.response == null && mImageUploadRetryCounts[index] < MAX_IMAGE_UPLOAD_RETRIES) {
+            LogUtils.w(error.toString());
+            ++mImageUploadRetryCounts[index];
+            mImageUploadBytesWritten.set(index, 0);
+            uploadImage(index);
+            return;
+        }
+        onErrorWithImages(error);
     }
 
     private void onSuccessWithImages(Broadcast broadcast) {
@@ -9,9 +9,13 @@ import android.os.Bundle;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
 
+import com.google.gson.reflect.TypeToken;
+
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -40,6 +44,8 @@ public class TimelineBroadcastListResource
     private String mUserIdOrUid;
     private String mTopic;
 
+    private final BroadcastListIndex mBroadcastListIndex = new BroadcastListIndex();
+
     private static final String FRAGMENT_TAG_DEFAULT =
             TimelineBroadcastListResource.class.getName();
 
@@ -87,6 +93,17 @@ public class TimelineBroadcastListResource
         mTopic = arguments.getString(EXTRA_TOPIC);
     }
 
+    @Override
+    protected Type getPageSpillType() {
+        return new TypeToken<List<Broadcast>>() {}.getType();
+    }
+
+    @Override
+    protected void onPagesChanged() {
+        mBroadcastListIndex.invalidate();
+        getListener().onBroadcastListChanged(getRequestCode(), Collections.unmodifiableList(get()));
+    }
+
     @Override
     protected ApiRequest<TimelineList> onCreateRequest(boolean more, int count) {
         Long untilId = null;
@@ -128,9 +145,11 @@ public class TimelineBroadcastListResource
             } else {
                 setAndNotifyListener(response, true);
             }
+            List<BroadcastUpdatedEvent> events = new ArrayList<>(response.size());
             for (Broadcast broadcast : response) {
-                EventBusUtils.postAsync(new BroadcastUpdatedEvent(broadcast, this));
+                events.add(new BroadcastUpdatedEvent(broadcast, this));
             }
+            EventBusUtils.postAsyncBatch(events);
             // Frodo API is sometimes buggy that broadcast list size may not be count. In this case,
             // we simply load more until no more broadcast is returned.
             setCanLoadMore(count == 0 || response.size() > 0);
@@ -156,11 +175,14 @@ public class TimelineBroadcastListResource
         }
 
         List<Broadcast> broadcastList = get();
-        for (int i = 0, size = broadcastList.size(); i < size; ++i) {
-            Broadcast updatedBroadcast = event.update(broadcastList.get(i), this);
+        for (int position : mBroadcastListIndex.getPositions(broadcastList,
+                event.getBroadcastId())) {
+            Broadcast oldBroadcast = broadcastList.get(position);
+            Broadcast updatedBroadcast = event.update(oldBroadcast, this);
             if (updatedBroadcast != null) {
-                broadcastList.set(i, updatedBroadcast);
-                getListener().onBroadcastChanged(getRequestCode(), i, updatedBroadcast);
+                broadcastList.set(position, updatedBroadcast);
+                mBroadcastListIndex.onBroadcastReplaced(position, oldBroadcast, updatedBroadcast);
+                getListener().onBroadcastChanged(getRequestCode(), position, updatedBroadcast);
             }
         }
     }
@@ -173,27 +195,32 @@ public class TimelineBroadcastListResource
         }
 
         List<Broadcast> broadcastList = get();
-        for (int i = 0, size = broadcastList.size(); i < size; ) {
-            Broadcast broadcast = broadcastList.get(i);
+        int[] positions = mBroadcastListIndex.getPositions(broadcastList, event.broadcastId);
+        if (positions.length == 0) {
+            return;
+        }
+        // Iterate backwards so that removals don't shift the positions yet to be visited.
+        for (int i = positions.length - 1; i >= 0; --i) {
+            int position = positions[i];
+            Broadcast broadcast = broadcastList.get(position);
             if (broadcast.id == event.broadcastId) {
-                broadcastList.remove(i);
-                getListener().onBroadcastRemoved(getRequestCode(), i);
-                --size;
+                broadcastList.remove(position);
+                getListener().onBroadcastRemoved(getRequestCode(), position);
             } else {
                 if (broadcast.parentBroadcast != null
                         && broadcast.parentBroadcast.id == event.broadcastId) {
                     // Same behavior as Frodo API.
-                    // FIXME: Won't reach here if another list shares this broadcast instance.
                     broadcast.parentBroadcast = null;
-                    getListener().onBroadcastChanged(getRequestCode(), i, broadcast);
                 } else if (broadcast.rebroadcastedBroadcast != null
                         && broadcast.rebroadcastedBroadcast.id == event.broadcastId) {
                     broadcast.rebroadcastedBroadcast.isDeleted = true;
-                    getListener().onBroadcastChanged(getRequestCode(), i, broadcast);
                 }
-                ++i;
+                // Otherwise another list sharing this broadcast instance has already updated it,
+                // and we still need to notify our listener.
+                getListener().onBroadcastChanged(getRequestCode(), position, broadcast);
             }
         }
+        mBroadcastListIndex.invalidate();
     }
 
     @Subscribe(threadMode = ThreadMode.POSTING)
@@ -204,10 +231,10 @@ public class TimelineBroadcastListResource
         }
 
         List<Broadcast> broadcastList = get();
-        for (int i = 0, size = broadcastList.size(); i < size; ++i) {
-            Broadcast broadcast = broadcastList.get(i);
+        for (int position : mBroadcastListIndex.getPositions(broadcastList, event.broadcastId)) {
+            Broadcast broadcast = broadcastList.get(position);
             if (broadcast.getEffectiveBroadcastId() == event.broadcastId) {
-                getListener().onBroadcastWriteStarted(getRequestCode(), i);
+                getListener().onBroadcastWriteStarted(getRequestCode(), position);
             }
         }
     }
@@ -220,10 +247,10 @@ public class TimelineBroadcastListResource
         }
 
         List<Broadcast> broadcastList = get();
-        for (int i = 0, size = broadcastList.size(); i < size; ++i) {
-            Broadcast broadcast = broadcastList.get(i);
+        for (int position : mBroadcastListIndex.getPositions(broadcastList, event.broadcastId)) {
+            Broadcast broadcast = broadcastList.get(position);
             if (broadcast.getEffectiveBroadcastId() == event.broadcastId) {
-                getListener().onBroadcastWriteFinished(getRequestCode(), i);
+                getListener().onBroadcastWriteFinished(getRequestCode(), position);
             }
         }
     }
@@ -24,6 +24,9 @@ import me.zhanghai.android.douya.broadcast.content.DeleteBroadcastManager;
 import me.zhanghai.android.douya.broadcast.content.LikeBroadcastManager;
 import me.zhanghai.android.douya.broadcast.content.RebroadcastBroadcastManager;
 import me.zhanghai.android.douya.broadcast.content.TimelineBroadcastListResource;
+import me.zhanghai.android.douya.glide.GlideApp;
+import me.zhanghai.android.douya.glide.GlideRequests;
+import me.zhanghai.android.douya.glide.RecyclerViewPreloader;
 import me.zhanghai.android.douya.network.api.info.frodo.Broadcast;
 import me.zhanghai.android.douya.ui.AppBarHost;
 import me.zhanghai.android.douya.ui.FastSmoothScrollStaggeredGridLayoutManager;
@@ -39,6 +42,8 @@ public abstract class BaseTimelineBroadcastListFragment extends BaseBroadcastLis
         implements TimelineBroadcastListResource.Listener, BroadcastAdapter.Listener,
         ConfirmUnrebroadcastBroadcastDialogFragment.Listener {
 
+    private static final int MAX_PRELOAD_ITEM_COUNT = 6;
+
     @BindView(R.id.send)
     FriendlyFloatingActionButton mSendFab;
 
@@ -84,6 +89,34 @@ public abstract class BaseTimelineBroadcastListFragment extends BaseBroadcastLis
 
     @Override
     protected void onAttachScrollListener() {
+        super.onAttachScrollListener();
+
+        GlideRequests glideRequests = GlideApp.with(this);
+        BroadcastAdapter adapter = (BroadcastAdapter) mItemAdapter;
+        mList.addOnScrollListener(new RecyclerViewPreloader(glideRequests,
+                position -> adapter.getPreloadRequests(position, glideRequests),
+                MAX_PRELOAD_ITEM_COUNT));
+        TimelineBroadcastListResource resource = (TimelineBroadcastListResource) mResource;
+        mList.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                    int[] range = RecyclerViewUtils.getVisibleAdapterPositionRange(recyclerView);
+                    if (range != null) {
+                        resource.trimPages(range[0], range[1]);
+                    }
+                }
+            }
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                // Also checked upon layout with dy == 0, so that restoring continues at the top.
+                if (dy <= 0 && resource.hasPagesBefore() && recyclerView
+                        .computeVerticalScrollOffset() < 2 * recyclerView
+                        .computeVerticalScrollExtent()) {
+                    resource.loadPageBefore();
+                }
+            }
+        });
         AppBarHost appBarHost = (AppBarHost) getParentFragment();
         mList.addOnScrollListener(
                 new OnVerticalScrollWithPagingTouchSlopListener(getActivity()) {
@@ -108,10 +141,6 @@ public abstract class BaseTimelineBroadcastListFragment extends BaseBroadcastLis
                             mSendFab.hide();
                         }
                     }
-                    @Override
-                    public void onScrolledToBottom() {
-                        mResource.load(true);
-                    }
                 });
         appBarHost.setToolBarOnDoubleClickListener(view -> {
             mList.smoothScrollToPosition(0);
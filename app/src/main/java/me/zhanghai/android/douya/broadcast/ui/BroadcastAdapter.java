@@ -6,27 +6,98 @@
 package me.zhanghai.android.douya.broadcast.ui;
 
 import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
 import androidx.core.view.ViewCompat;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import me.zhanghai.android.douya.R;
+import me.zhanghai.android.douya.glide.GlideRequests;
+import me.zhanghai.android.douya.glide.RecyclerViewPreloader;
 import me.zhanghai.android.douya.network.api.info.frodo.Broadcast;
 import me.zhanghai.android.douya.ui.SimpleAdapter;
+import me.zhanghai.android.douya.util.NestedRecyclerViewUtils;
 import me.zhanghai.android.douya.util.ViewUtils;
 
 public class BroadcastAdapter extends SimpleAdapter<Broadcast, BroadcastAdapter.ViewHolder> {
 
+    private static final Object PAYLOAD_ACTIONS = new Object();
+
     private Listener mListener;
 
+    private Context mContext;
+
+    // Image lists of our broadcasts share a pool.
+    private final RecyclerView.RecycledViewPool mImageListPool =
+            NestedRecyclerViewUtils.createPool();
+
+    // Recorded from our own holders, because lists of different widths have different sizes.
+    private final BroadcastLayout.PreloadSizes mPreloadSizes = new BroadcastLayout.PreloadSizes();
+
     public BroadcastAdapter(Listener listener) {
         mListener = listener;
         setHasStableIds(true);
+        setDiffItemCallback(new DiffItemCallback());
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+
+        mContext = recyclerView.getContext();
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+
+        mContext = null;
+    }
+
+    @Override
+    public void addAll(@NonNull Collection<? extends Broadcast> collection) {
+        prefetchTexts(collection);
+        super.addAll(collection);
+    }
+
+    @Override
+    public void replace(@NonNull Collection<? extends Broadcast> collection) {
+        prefetchTexts(collection);
+        super.replace(collection);
+    }
+
+    /**
+     * @see me.zhanghai.android.douya.glide.RecyclerViewPreloader.RequestProvider
+     */
+    @NonNull
+    public List<RecyclerViewPreloader.Request> getPreloadRequests(int position,
+                                                                  @NonNull GlideRequests requests) {
+        // Positions after our items belong to other adapters merged after us.
+        if (mContext == null || position >= getItemCount()) {
+            return Collections.emptyList();
+        }
+        return BroadcastLayout.getPreloadRequests(getItem(position), mPreloadSizes, requests,
+                mContext);
+    }
+
+    private void prefetchTexts(@NonNull Collection<? extends Broadcast> broadcasts) {
+        // Texts need a themed context.
+        if (mContext != null) {
+            BroadcastLayout.prefetchTexts(new ArrayList<>(broadcasts), mContext);
+        }
     }
 
     @Override
@@ -36,7 +107,12 @@ public class BroadcastAdapter extends SimpleAdapter<Broadcast, BroadcastAdapter.
 
     @Override
     public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        return new ViewHolder(ViewUtils.inflate(R.layout.broadcast_item, parent));
+        ViewHolder holder = new ViewHolder(ViewUtils.inflate(R.layout.broadcast_item, parent));
+        holder.broadcastLayout.setImageListRecycledViewPool(mImageListPool);
+        holder.broadcastLayout.addOnLayoutChangeListener((view, left, top, right, bottom, oldLeft,
+                oldTop, oldRight, oldBottom) -> holder.broadcastLayout.recordPreloadSizes(
+                        mPreloadSizes));
+        return holder;
     }
 
     @Override
@@ -44,10 +120,27 @@ public class BroadcastAdapter extends SimpleAdapter<Broadcast, BroadcastAdapter.
         Broadcast broadcast = getItem(position);
         holder.rebroadcastedByText.setText(broadcast.isSimpleRebroadcast() ?
                 broadcast.getRebroadcastedBy(holder.rebroadcastedByText.getContext()) : null);
+        holder.broadcastLayout.bind(broadcast);
+        bindListeners(holder, broadcast);
+        ViewCompat.setTransitionName(getSharedView(holder), broadcast.makeTransitionName());
+    }
+
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position, List<Object> payloads) {
+        if (!hasOnlyPayload(payloads, PAYLOAD_ACTIONS)) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        Broadcast broadcast = getItem(position);
+        holder.broadcastLayout.bindActions(broadcast);
+        // Listeners need to be updated for the new broadcast instance.
+        bindListeners(holder, broadcast);
+    }
+
+    private void bindListeners(ViewHolder holder, Broadcast broadcast) {
         Broadcast effectiveBroadcast = broadcast.getEffectiveBroadcast();
         holder.cardView.setOnClickListener(view -> mListener.onOpenBroadcast(broadcast,
                 getSharedView(holder)));
-        holder.broadcastLayout.bind(broadcast);
         holder.broadcastLayout.setListener(new BroadcastLayout.Listener() {
             @Override
             public void onLikeClicked() {
@@ -66,7 +159,6 @@ public class BroadcastAdapter extends SimpleAdapter<Broadcast, BroadcastAdapter.
                 mListener.onCommentBroadcast(broadcast, getSharedView(holder));
             }
         });
-        ViewCompat.setTransitionName(getSharedView(holder), broadcast.makeTransitionName());
     }
 
     private static View getSharedView(ViewHolder holder) {
@@ -80,6 +172,60 @@ public class BroadcastAdapter extends SimpleAdapter<Broadcast, BroadcastAdapter.
         holder.broadcastLayout.unbind();
     }
 
+    private static class DiffItemCallback extends DiffUtil.ItemCallback<Broadcast> {
+
+        @Override
+        public boolean areItemsTheSame(@NonNull Broadcast oldItem, @NonNull Broadcast newItem) {
+            return oldItem.id == newItem.id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Broadcast oldItem, @NonNull Broadcast newItem) {
+            return oldItem == newItem || (areStructuresTheSame(oldItem, newItem)
+                    && areActionsTheSame(oldItem.getEffectiveBroadcast(),
+                    newItem.getEffectiveBroadcast()));
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull Broadcast oldItem, @NonNull Broadcast newItem) {
+            return areStructuresTheSame(oldItem, newItem) ? PAYLOAD_ACTIONS : null;
+        }
+
+        /*
+         * Text and attachments of a broadcast don't change, as assumed in
+         * BroadcastLayout.bind(Broadcast), so only the broadcasts involved and their deletion need
+         * to be compared.
+         */
+        private static boolean areStructuresTheSame(@NonNull Broadcast oldBroadcast,
+                                                    @NonNull Broadcast newBroadcast) {
+            return oldBroadcast.isDeleted == newBroadcast.isDeleted
+                    && ObjectsCompat.equals(oldBroadcast.getParentBroadcastId(),
+                    newBroadcast.getParentBroadcastId())
+                    && areRebroadcastedBroadcastsTheSame(oldBroadcast.rebroadcastedBroadcast,
+                    newBroadcast.rebroadcastedBroadcast);
+        }
+
+        private static boolean areRebroadcastedBroadcastsTheSame(
+                @Nullable Broadcast oldBroadcast, @Nullable Broadcast newBroadcast) {
+            if (oldBroadcast == null || newBroadcast == null) {
+                return oldBroadcast == newBroadcast;
+            }
+            return oldBroadcast.id == newBroadcast.id
+                    && oldBroadcast.isDeleted == newBroadcast.isDeleted
+                    && areRebroadcastedBroadcastsTheSame(oldBroadcast.rebroadcastedBroadcast,
+                    newBroadcast.rebroadcastedBroadcast);
+        }
+
+        private static boolean areActionsTheSame(@NonNull Broadcast oldBroadcast,
+                                                 @NonNull Broadcast newBroadcast) {
+            return oldBroadcast.likeCount == newBroadcast.likeCount
+                    && oldBroadcast.isLiked == newBroadcast.isLiked
+                    && oldBroadcast.rebroadcastCount == newBroadcast.rebroadcastCount
+                    && oldBroadcast.commentCount == newBroadcast.commentCount;
+        }
+    }
+
     public interface Listener {
         void onLikeBroadcast(Broadcast broadcast, boolean like);
         void onRebroadcastBroadcast(Broadcast broadcast, boolean rebroadcast, boolean quick);
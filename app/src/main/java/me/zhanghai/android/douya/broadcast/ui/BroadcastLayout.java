@@ -8,7 +8,9 @@ package me.zhanghai.android.douya.broadcast.ui;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.os.Build;
+import androidx.annotation.NonNull;
 import androidx.core.util.ObjectsCompat;
+import androidx.core.util.Pair;
 import androidx.core.view.ViewCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -23,6 +25,7 @@ import android.widget.RelativeLayout;
 import android.widget.Space;
 import android.widget.TextView;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import butterknife.BindView;
@@ -32,6 +35,8 @@ import me.zhanghai.android.douya.broadcast.content.DeleteBroadcastManager;
 import me.zhanghai.android.douya.broadcast.content.LikeBroadcastManager;
 import me.zhanghai.android.douya.broadcast.content.RebroadcastBroadcastManager;
 import me.zhanghai.android.douya.gallery.ui.GalleryActivity;
+import me.zhanghai.android.douya.glide.GlideRequests;
+import me.zhanghai.android.douya.glide.RecyclerViewPreloader;
 import me.zhanghai.android.douya.link.UriHandler;
 import me.zhanghai.android.douya.network.api.info.frodo.Broadcast;
 import me.zhanghai.android.douya.network.api.info.frodo.BroadcastAttachment;
@@ -46,6 +51,7 @@ import me.zhanghai.android.douya.ui.SizedImageItem;
 import me.zhanghai.android.douya.ui.TimeTextView;
 import me.zhanghai.android.douya.util.DrawableUtils;
 import me.zhanghai.android.douya.util.ImageUtils;
+import me.zhanghai.android.douya.util.NestedRecyclerViewUtils;
 import me.zhanghai.android.douya.util.TooltipUtils;
 import me.zhanghai.android.douya.util.ViewUtils;
 
@@ -57,6 +63,8 @@ import me.zhanghai.android.douya.util.ViewUtils;
  */
 public class BroadcastLayout extends LinearLayout {
 
+    private static final int IMAGE_LIST_INITIAL_PREFETCH_ITEM_COUNT = 4;
+
     @BindView(R.id.broadcastlayout_author_time_action_layout)
     ViewGroup mAuthorTimeActionLayout;
     @BindView(R.id.broadcastlayout_avatar)
@@ -160,6 +168,8 @@ public class BroadcastLayout extends LinearLayout {
                 R.drawable.transparent_divider_vertical_2dp, getContext()));
         mImageListAdapter = new HorizontalImageAdapter();
         mImageList.setAdapter(mImageListAdapter);
+        NestedRecyclerViewUtils.setUp(mImageList, IMAGE_LIST_INITIAL_PREFETCH_ITEM_COUNT, null);
+        HorizontalImageAdapter.setUpPreloader(mImageList);
         mImageList.addOnScrollListener(new OnHorizontalScrollListener() {
             private boolean mShowingDescription = true;
             @Override
@@ -191,6 +201,36 @@ public class BroadcastLayout extends LinearLayout {
         mListener = listener;
     }
 
+    /**
+     * Share the pool of the image list with other broadcasts in the same outer list.
+     *
+     * @see NestedRecyclerViewUtils#createPool()
+     */
+    public void setImageListRecycledViewPool(@NonNull RecyclerView.RecycledViewPool pool) {
+        mImageList.setRecycledViewPool(pool);
+    }
+
+    /**
+     * Record the sizes of the image targets of this layout if it has been laid out, for
+     * preloading images of broadcasts not yet bound into layouts like this one.
+     */
+    public void recordPreloadSizes(@NonNull PreloadSizes sizes) {
+        if (mAvatarImage.getWidth() > 0) {
+            // Same as what Glide uses for a ViewTarget.
+            sizes.mAvatarWidth = mAvatarImage.getWidth() - mAvatarImage.getPaddingLeft()
+                    - mAvatarImage.getPaddingRight();
+            sizes.mAvatarHeight = mAvatarImage.getHeight() - mAvatarImage.getPaddingTop()
+                    - mAvatarImage.getPaddingBottom();
+        }
+        if (mSingleImageLayout.getVisibility() == VISIBLE && mSingleImageLayout.getWidth() > 0) {
+            sizes.mSingleImageWidth = mSingleImageLayout.getWidth();
+        }
+        if (mImageListLayout.getVisibility() == VISIBLE && mImageList.getHeight() > 0) {
+            sizes.mImageListHeight = mImageList.getHeight() - mImageList.getPaddingTop()
+                    - mImageList.getPaddingBottom();
+        }
+    }
+
     private void bind(Broadcast broadcast, Broadcast rebroadcastedBroadcast,
                       boolean isSimpleRebroadcastByOneself, boolean isUnrebroadcasting) {
 
@@ -214,7 +254,7 @@ public class BroadcastLayout extends LinearLayout {
         if (!(isRebind && ObjectsCompat.equals(mBoundBroadcastHadParentBroadcast,
                 hasParentBroadcast))) {
             mBoundBroadcastHadParentBroadcast = hasParentBroadcast;
-            mTextText.setText(broadcast.getTextWithEntities(mTextText.getContext()));
+            BroadcastTextCache.setText(mTextText, broadcast, false);
         }
         boolean hasRebroadcastedBroadcast = rebroadcastedBroadcast != null;
         if (!(isRebind && (!hasRebroadcastedBroadcast || ObjectsCompat.equals(
@@ -229,6 +269,13 @@ public class BroadcastLayout extends LinearLayout {
             setRebroadcastedAttachmentImagesLayoutOnClickListener(rebroadcastedBroadcast);
         }
 
+        bindActions(broadcast, isSimpleRebroadcastByOneself, isUnrebroadcasting);
+
+        mBoundBroadcastId = broadcast.id;
+    }
+
+    private void bindActions(Broadcast broadcast, boolean isSimpleRebroadcastByOneself,
+                             boolean isUnrebroadcasting) {
         mLikeButton.setText(broadcast.getLikeCountString());
         LikeBroadcastManager likeBroadcastManager = LikeBroadcastManager.getInstance();
         if (likeBroadcastManager.isWriting(broadcast.id)) {
@@ -280,8 +327,6 @@ public class BroadcastLayout extends LinearLayout {
                 mListener.onCommentClicked();
             }
         });
-
-        mBoundBroadcastId = broadcast.id;
     }
 
     private void bindRebroadcastedAttachmentImages(Broadcast broadcast,
@@ -299,8 +344,7 @@ public class BroadcastLayout extends LinearLayout {
             } else {
                 mRebroadcastedNameText.setText(rebroadcastedBroadcast.author.name);
                 mRebroadcastedActionText.setText(rebroadcastedBroadcast.action);
-                mRebroadcastedTextText.setText(rebroadcastedBroadcast.getTextWithEntities(
-                        mRebroadcastedTextText.getContext()));
+                BroadcastTextCache.setText(mRebroadcastedTextText, rebroadcastedBroadcast, false);
             }
         } else {
             mRebroadcastedAttachmentImagesLayout.setOnClickListener(null);
@@ -381,6 +425,82 @@ public class BroadcastLayout extends LinearLayout {
         }
     }
 
+    /**
+     * Build the texts for {@link #bind(Broadcast)} in background ahead of time.
+     */
+    public static void prefetchTexts(List<Broadcast> broadcasts, Context context) {
+        List<Broadcast> textBroadcasts = new ArrayList<>();
+        for (Broadcast broadcast : broadcasts) {
+            Pair<Broadcast, Broadcast> boundBroadcasts = getBoundBroadcasts(broadcast);
+            textBroadcasts.add(boundBroadcasts.first);
+            Broadcast rebroadcastedBroadcast = boundBroadcasts.second;
+            if (rebroadcastedBroadcast != null && !rebroadcastedBroadcast.isDeleted) {
+                textBroadcasts.add(rebroadcastedBroadcast);
+            }
+        }
+        BroadcastTextCache.prefetch(textBroadcasts, false, context);
+    }
+
+    /**
+     * Get the requests for preloading the images that {@link #bind(Broadcast)} will load, once
+     * the sizes of their targets are known from a previous layout.
+     *
+     * @see #recordPreloadSizes(PreloadSizes)
+     */
+    public static List<RecyclerViewPreloader.Request> getPreloadRequests(
+            Broadcast broadcast, PreloadSizes sizes, GlideRequests requests, Context context) {
+        List<RecyclerViewPreloader.Request> preloadRequests = new ArrayList<>();
+        Pair<Broadcast, Broadcast> boundBroadcasts = getBoundBroadcasts(broadcast);
+        Broadcast boundBroadcast = boundBroadcasts.first;
+        if (sizes.mAvatarWidth > 0 && sizes.mAvatarHeight > 0) {
+            preloadRequests.add(new RecyclerViewPreloader.Request(ImageUtils.makeAvatarRequest(
+                    requests, boundBroadcast.author.avatar), sizes.mAvatarWidth,
+                    sizes.mAvatarHeight));
+        }
+        // Same as in bindRebroadcastedAttachmentImages().
+        Broadcast contentBroadcast = boundBroadcasts.second != null ? boundBroadcasts.second
+                : boundBroadcast;
+        List<? extends SizedImageItem> images = contentBroadcast.attachment != null
+                && contentBroadcast.attachment.imageList != null ?
+                contentBroadcast.attachment.imageList.images : contentBroadcast.images;
+        if (images.size() == 1) {
+            SizedImageItem image = images.get(0);
+            int[] size = ImageLayout.getImageSize(image, ImageLayout.FILL_ORIENTATION_HORIZONTAL,
+                    sizes.mSingleImageWidth, context);
+            if (size != null) {
+                preloadRequests.add(new RecyclerViewPreloader.Request(
+                        ImageUtils.makeImageWithRatioRequest(requests, image), size[0], size[1]));
+            }
+        } else if (sizes.mImageListHeight > 0) {
+            for (int i = 0, count = Math.min(images.size(),
+                    IMAGE_LIST_INITIAL_PREFETCH_ITEM_COUNT); i < count; ++i) {
+                RecyclerViewPreloader.Request request = HorizontalImageAdapter.makePreloadRequest(
+                        images.get(i), sizes.mImageListHeight, requests, context);
+                if (request != null) {
+                    preloadRequests.add(request);
+                }
+            }
+        }
+        return preloadRequests;
+    }
+
+    /**
+     * @return The broadcast bound as the main one and the rebroadcasted broadcast, same as in
+     *         {@link #bind(Broadcast)}.
+     */
+    private static Pair<Broadcast, Broadcast> getBoundBroadcasts(Broadcast broadcast) {
+        if (broadcast.isSimpleRebroadcast()) {
+            if (broadcast.parentBroadcast != null) {
+                return new Pair<>(broadcast.parentBroadcast, broadcast.rebroadcastedBroadcast);
+            } else {
+                return new Pair<>(broadcast.rebroadcastedBroadcast,
+                        broadcast.rebroadcastedBroadcast.rebroadcastedBroadcast);
+            }
+        } else {
+            return new Pair<>(broadcast, broadcast.rebroadcastedBroadcast);
+        }
+    }
+
     public void bind(Broadcast broadcast) {
         if (broadcast.isSimpleRebroadcast()) {
             boolean isSimpleRebroadcastByOneself = broadcast.isSimpleRebroadcastByOneself();
@@ -399,6 +519,26 @@ public class BroadcastLayout extends LinearLayout {
         }
     }
 
+    /**
+     * Bind only the like, rebroadcast and comment actions, for when only their states or counts
+     * have changed since the last {@link #bind(Broadcast)} of the same broadcast.
+     */
+    public void bindActions(Broadcast broadcast) {
+        Broadcast effectiveBroadcast = broadcast.getEffectiveBroadcast();
+        boolean isSimpleRebroadcastByOneself = broadcast.isSimpleRebroadcastByOneself();
+        boolean isUnrebroadcasting = isSimpleRebroadcastByOneself &&
+                DeleteBroadcastManager.getInstance().isWriting(broadcast.id);
+        bindActions(effectiveBroadcast, isSimpleRebroadcastByOneself, isUnrebroadcasting);
+        // Same as in bind(Broadcast).
+        Broadcast rebroadcastedBroadcast = broadcast.isSimpleRebroadcast()
+                && broadcast.parentBroadcast != null ? broadcast.rebroadcastedBroadcast
+                : effectiveBroadcast.rebroadcastedBroadcast;
+        if (rebroadcastedBroadcast != null) {
+            // In case the broadcast has changed (e.g. likeCount).
+            setRebroadcastedAttachmentImagesLayoutOnClickListener(rebroadcastedBroadcast);
+        }
+    }
+
     public void unbind() {
         mAvatarImage.setImageDrawable(null);
         mAttachmentImage.setImageDrawable(null);
@@ -409,13 +549,12 @@ public class BroadcastLayout extends LinearLayout {
 
     public void bindForRebroadcast(Broadcast broadcast) {
         ViewUtils.setVisibleOrGone(mAuthorTimeActionLayout, false);
-        if (broadcast.isSimpleRebroadcast()) {
-            mTextText.setText(broadcast.parentBroadcast != null ?
-                    broadcast.parentBroadcast.getTextWithEntitiesAsParent(mTextText.getContext())
-                    : null);
+        Broadcast parentBroadcast = broadcast.isSimpleRebroadcast() ? broadcast.parentBroadcast
+                : broadcast.rebroadcastedBroadcast != null ? broadcast : null;
+        if (parentBroadcast != null) {
+            BroadcastTextCache.setText(mTextText, parentBroadcast, true);
         } else {
-            mTextText.setText(broadcast.rebroadcastedBroadcast != null ?
-                    broadcast.getTextWithEntitiesAsParent(mTextText.getContext()) : null);
+            mTextText.setText(null);
         }
         bindRebroadcastedAttachmentImages(null, broadcast.rebroadcastedBroadcast != null ?
                 broadcast.rebroadcastedBroadcast : broadcast);
@@ -427,6 +566,18 @@ public class BroadcastLayout extends LinearLayout {
         ViewUtils.setTextViewLinkClickableAndTextSelectable(mTextText);
     }
 
+    /**
+     * Sizes of image targets in the layouts of a list, which differ among lists with different
+     * widths.
+     */
+    public static class PreloadSizes {
+
+        private int mAvatarWidth;
+        private int mAvatarHeight;
+        private int mSingleImageWidth;
+        private int mImageListHeight;
+    }
+
     public interface Listener {
         void onLikeClicked();
         void onRebroadcastClicked(boolean isLongClick);
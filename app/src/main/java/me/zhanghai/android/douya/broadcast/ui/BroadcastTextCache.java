@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.broadcast.ui;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.AsyncTask;
+import android.text.SpannedString;
+import android.util.LruCache;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import me.zhanghai.android.douya.network.api.info.frodo.Broadcast;
+import me.zhanghai.android.douya.util.CollectionUtils;
+
+/**
+ * Caches the spanned text of broadcasts, keyed by broadcast ID and a hash of everything that goes
+ * into the text, so that binding doesn't need to rebuild it and it can be built ahead of time in
+ * background.
+ * <p>
+ * Cached texts are immutable so that they can be shared by any number of text views, which copy
+ * them into their own {@link android.text.Spannable} for link handling. Precomputed text must not
+ * be cached here, because a text view keeps it as is and attaches its own spans to it.
+ */
+public class BroadcastTextCache {
+
+    private static final int MAX_SIZE = 256;
+
+    private static final LruCache<String, Entry> sCache = new LruCache<>(MAX_SIZE);
+
+    private BroadcastTextCache() {}
+
+    /**
+     * Build the texts of broadcasts in background, for binding them later.
+     *
+     * @param asParent Whether the texts are for
+     *                 {@link Broadcast#getTextWithEntitiesAsParent(Context)}.
+     */
+    public static void prefetch(@NonNull Collection<Broadcast> broadcasts, boolean asParent,
+                                @NonNull Context context) {
+        if (broadcasts.isEmpty()) {
+            return;
+        }
+        List<Broadcast> broadcastList = new ArrayList<>(broadcasts);
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(() -> {
+            for (Broadcast broadcast : broadcastList) {
+                getEntry(broadcast, asParent, context);
+            }
+        });
+    }
+
+    /**
+     * Set the text of a broadcast on a text view, building it if not cached.
+     */
+    public static void setText(@NonNull TextView textView, @NonNull Broadcast broadcast,
+                               boolean asParent) {
+        Entry entry = getEntry(broadcast, asParent, textView.getContext());
+        textView.setText(entry.mText);
+    }
+
+    @NonNull
+    private static Entry getEntry(@NonNull Broadcast broadcast, boolean asParent,
+                                  @NonNull Context context) {
+        String key = makeKey(broadcast, asParent, context);
+        Entry entry = sCache.get(key);
+        if (entry == null) {
+            CharSequence text = asParent ? broadcast.getTextWithEntitiesAsParent(context)
+                    : broadcast.getTextWithEntities(context);
+            entry = new Entry(text != null ? new SpannedString(text) : null);
+            sCache.put(key, entry);
+        }
+        return entry;
+    }
+
+    @NonNull
+    private static String makeKey(@NonNull Broadcast broadcast, boolean asParent,
+                                  @NonNull Context context) {
+        // Colors in the text depend on night mode.
+        int nightMode = context.getResources().getConfiguration().uiMode
+                & Configuration.UI_MODE_NIGHT_MASK;
+        StringBuilder builder = new StringBuilder()
+                .append(asParent)
+                .append(',')
+                .append(nightMode)
+                .append(',')
+                .append(broadcast.id)
+                .append(',')
+                .append(ObjectsCompat.hashCode(broadcast.text))
+                .append(',')
+                .append(CollectionUtils.size(broadcast.entities));
+        // The text of the parent broadcast is appended.
+        Broadcast parentBroadcast = asParent ? broadcast : broadcast.parentBroadcast;
+        if (parentBroadcast != null) {
+            builder
+                    .append(',')
+                    .append(parentBroadcast.id)
+                    .append(',')
+                    .append(parentBroadcast.isDeleted)
+                    .append(',')
+                    .append(parentBroadcast.author != null ? ObjectsCompat.hashCode(
+                            parentBroadcast.author.name) : 0)
+                    .append(',')
+                    .append(ObjectsCompat.hashCode(parentBroadcast.text))
+                    .append(',')
+                    .append(parentBroadcast.getParentBroadcastId());
+        } else {
+            builder
+                    .append(',')
+                    .append(broadcast.getParentBroadcastId());
+        }
+        return builder.toString();
+    }
+
+    private static class Entry {
+
+        @Nullable
+        public final SpannedString mText;
+
+        public Entry(@Nullable SpannedString text) {
+            mText = text;
+        }
+    }
+}
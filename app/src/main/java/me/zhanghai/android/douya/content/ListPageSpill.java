@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.content;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import me.zhanghai.android.douya.util.AppUtils;
+import me.zhanghai.android.douya.util.Callback;
+import me.zhanghai.android.douya.util.GsonHelper;
+import me.zhanghai.android.douya.util.StandardCharsetsCompat;
+
+/**
+ * Pages of a list that have been dropped from memory, kept as files in two stacks for the pages
+ * before and after the resident part of the list.
+ * <p>
+ * Pages are serialized, written and read on a single background thread, so that trimming doesn't
+ * stall scrolling and a page pushed can always be popped right away. Items may be shared with
+ * other lists and have their counts updated on the main thread meanwhile, which only makes the
+ * page as stale as one modified after being spilled; a page that fails to serialize is lost. Files
+ * left by a previous process are deleted upon first use.
+ * <p>
+ * Not thread safe, should only be used on the main thread.
+ */
+class ListPageSpill<T> {
+
+    private static final String DIRECTORY_NAME = "list_spill";
+
+    private static final ExecutorService sExecutorService = Executors.newSingleThreadExecutor();
+
+    private static boolean sDirectoryCleaned;
+
+    @NonNull
+    private final File mDirectory;
+    @NonNull
+    private final Type mPageType;
+    @NonNull
+    private final String mFileNamePrefix = UUID.randomUUID().toString();
+    private int mNextFileIndex;
+
+    @NonNull
+    private final Deque<Page> mPagesBefore = new ArrayDeque<>();
+    @NonNull
+    private final Deque<Page> mPagesAfter = new ArrayDeque<>();
+    private int mItemCountBefore;
+
+    /**
+     * @param pageType The type of {@code List<T>}.
+     */
+    public ListPageSpill(@NonNull Type pageType, @NonNull Context context) {
+        mDirectory = new File(context.getCacheDir(), DIRECTORY_NAME);
+        mPageType = pageType;
+        if (!sDirectoryCleaned) {
+            sDirectoryCleaned = true;
+            File directory = mDirectory;
+            sExecutorService.execute(() -> deleteFiles(directory));
+        }
+    }
+
+    public boolean hasPagesBefore() {
+        return !mPagesBefore.isEmpty();
+    }
+
+    public boolean hasPagesAfter() {
+        return !mPagesAfter.isEmpty();
+    }
+
+    /**
+     * @return The number of items in the pages before the resident part of the list.
+     */
+    public int getItemCountBefore() {
+        return mItemCountBefore;
+    }
+
+    /**
+     * Push the page right before the resident part of the list.
+     *
+     * @param page A list that is no longer modified afterwards.
+     */
+    public void pushPageBefore(@NonNull List<T> page) {
+        mPagesBefore.push(writePage(page));
+        mItemCountBefore += page.size();
+    }
+
+    /**
+     * Push the page right after the resident part of the list.
+     *
+     * @param page A list that is no longer modified afterwards.
+     */
+    public void pushPageAfter(@NonNull List<T> page) {
+        mPagesAfter.push(writePage(page));
+    }
+
+    /**
+     * Pop the page right before the resident part of the list.
+     *
+     * @param callback Called on the main thread with the page, or {@code null} if it was lost.
+     */
+    public void popPageBefore(@NonNull Callback<List<T>> callback) {
+        Page page = mPagesBefore.pop();
+        mItemCountBefore -= page.mSize;
+        readPage(page, callback);
+    }
+
+    /**
+     * Pop the page right after the resident part of the list.
+     *
+     * @param callback Called on the main thread with the page, or {@code null} if it was lost.
+     */
+    public void popPageAfter(@NonNull Callback<List<T>> callback) {
+        readPage(mPagesAfter.pop(), callback);
+    }
+
+    public void clearPagesBefore() {
+        deletePages(mPagesBefore);
+        mItemCountBefore = 0;
+    }
+
+    public void clearPagesAfter() {
+        deletePages(mPagesAfter);
+    }
+
+    public void clear() {
+        clearPagesBefore();
+        clearPagesAfter();
+    }
+
+    @NonNull
+    private Page writePage(@NonNull List<T> page) {
+        File file = new File(mDirectory, mFileNamePrefix + '-' + mNextFileIndex++);
+        sExecutorService.execute(() -> {
+            //noinspection ResultOfMethodCallIgnored
+            mDirectory.mkdirs();
+            // Unlike JsonReader, JsonWriter doesn't buffer on its own.
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(
+                    file), StandardCharsetsCompat.UTF_8))) {
+                GsonHelper.GSON.toJson(page, mPageType, writer);
+            } catch (Exception e) {
+                e.printStackTrace();
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        });
+        return new Page(file, page.size());
+    }
+
+    private void readPage(@NonNull Page page, @NonNull Callback<List<T>> callback) {
+        File file = page.mFile;
+        sExecutorService.execute(() -> {
+            List<T> list = readPageFile(file);
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            AppUtils.runOnUiThread(() -> callback.onValue(list));
+        });
+    }
+
+    @Nullable
+    private List<T> readPageFile(@NonNull File file) {
+        // Gson.fromJson() creates a JsonReader which does its own buffering.
+        try (Reader reader = new InputStreamReader(new FileInputStream(file),
+                StandardCharsetsCompat.UTF_8)) {
+            return GsonHelper.GSON.fromJson(reader, mPageType);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static void deletePages(@NonNull Deque<Page> pages) {
+        if (pages.isEmpty()) {
+            return;
+        }
+        File[] files = new File[pages.size()];
+        int i = 0;
+        for (Page page : pages) {
+            files[i++] = page.mFile;
+        }
+        pages.clear();
+        sExecutorService.execute(() -> {
+            for (File file : files) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        });
+    }
+
+    private static void deleteFiles(@NonNull File directory) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    private static class Page {
+
+        @NonNull
+        public final File mFile;
+        public final int mSize;
+
+        public Page(@NonNull File file, int size) {
+            mFile = file;
+            mSize = size;
+        }
+    }
+}
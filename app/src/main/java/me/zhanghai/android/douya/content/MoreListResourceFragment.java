@@ -5,6 +5,8 @@
 
 package me.zhanghai.android.douya.content;
 
+import android.os.SystemClock;
+
 import me.zhanghai.android.douya.network.api.ApiError;
 import me.zhanghai.android.douya.network.api.ApiRequest;
 
@@ -13,11 +15,18 @@ public abstract class MoreListResourceFragment<ResponseType, ResourceListType>
 
     private static final int DEFAULT_LOAD_COUNT = 20;
 
+    private static final long DEFAULT_LOAD_LATENCY_MILLIS = 1000;
+
+    // Moving average of the time loads take, shared by all lists since they hit the same API.
+    private static volatile long sLoadLatencyMillis = DEFAULT_LOAD_LATENCY_MILLIS;
+
     private boolean mLoadingMore;
     private boolean mCanLoadMore = true;
 
     private int mLoadCount;
 
+    private long mLoadStartTime;
+
     protected abstract ResourceListType addAll(ResourceListType resource, ResourceListType more);
 
     @Override
@@ -59,6 +68,7 @@ public abstract class MoreListResourceFragment<ResponseType, ResourceListType>
 
         mLoadingMore = more;
         mLoadCount = count;
+        mLoadStartTime = SystemClock.elapsedRealtime();
         super.load();
     }
 
@@ -66,6 +76,13 @@ public abstract class MoreListResourceFragment<ResponseType, ResourceListType>
         load(loadMore, getDefaultLoadCount());
     }
 
+    /**
+     * @return The average time loads have taken, for loading more ahead of time.
+     */
+    public static long getLoadLatencyMillis() {
+        return sLoadLatencyMillis;
+    }
+
     protected int getDefaultLoadCount() {
         return DEFAULT_LOAD_COUNT;
     }
@@ -84,6 +101,10 @@ public abstract class MoreListResourceFragment<ResponseType, ResourceListType>
     @Override
     protected final void onLoadFinished(boolean successful, ResponseType response,
                                         ApiError error) {
+        if (successful) {
+            long latencyMillis = SystemClock.elapsedRealtime() - mLoadStartTime;
+            sLoadLatencyMillis = (sLoadLatencyMillis + latencyMillis) / 2;
+        }
         onLoadFinished(mLoadingMore, mLoadCount, successful, response, error);
         mLoadingMore = false;
     }
@@ -5,11 +5,75 @@
 
 package me.zhanghai.android.douya.content;
 
+import android.os.Bundle;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 
+import me.zhanghai.android.douya.network.api.ApiRequest;
+
 public abstract class MoreRawListResourceFragment<ResponseType, ResourceType>
         extends MoreListResourceFragment<ResponseType, List<ResourceType>> {
 
+    private static final int MAX_RESIDENT_PAGE_COUNT = 5;
+    // Pages kept on each side of the visible items when trimming.
+    private static final int MARGIN_PAGE_COUNT = 2;
+
+    private ListPageSpill<ResourceType> mPageSpill;
+    private boolean mRestoringPage;
+    // Incremented whenever the spill is cleared, so that a page restored afterwards is dropped.
+    private int mPageSpillGeneration;
+
+    @Override
+    public void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        Type pageType = getPageSpillType();
+        if (pageType != null) {
+            mPageSpill = new ListPageSpill<>(pageType, getActivity());
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+
+        clearPageSpill();
+    }
+
+    /**
+     * Enable windowed paging by returning the type of {@code List<ResourceType>}, so that pages far
+     * away from the visible items can be spilled to disk with {@link #trimPages(int, int)}, and
+     * restored later with {@link #loadPageBefore()} and {@link #load(boolean)}. Subclasses doing so
+     * must also implement {@link #onPagesChanged()}.
+     * <p>
+     * A page before the items in memory may be lost when restoring it, in which case all pages
+     * before it are dropped as well, so that the offset passed to
+     * {@link #onCreateRequest(Integer, Integer)} no longer counts them. Only subclasses that load
+     * more by the ID of their last item instead of by offset should opt in.
+     *
+     * @return The type of a page, or {@code null} to keep every page in memory.
+     */
+    @Nullable
+    protected Type getPageSpillType() {
+        return null;
+    }
+
+    /**
+     * Called when pages have been spilled or restored, and listeners should be notified with the
+     * whole list.
+     */
+    protected void onPagesChanged() {}
+
+    @Override
+    protected void set(List<ResourceType> resource) {
+        clearPageSpill();
+
+        super.set(resource);
+    }
+
     @Override
     protected int getSize(List<ResourceType> resource) {
         return resource.size();
@@ -20,4 +84,121 @@ public abstract class MoreRawListResourceFragment<ResponseType, ResourceType>
         resource.addAll(more);
         return resource;
     }
+
+    @Override
+    public void load(boolean more, int count) {
+        if (more) {
+            if (mRestoringPage) {
+                return;
+            }
+            if (mPageSpill != null && mPageSpill.hasPagesAfter()) {
+                if (!isLoading()) {
+                    loadPageAfter();
+                }
+                return;
+            }
+        }
+        super.load(more, count);
+    }
+
+    @Override
+    protected ApiRequest<ResponseType> onCreateRequest(boolean more, int count) {
+        int itemCountBefore = mPageSpill != null ? mPageSpill.getItemCountBefore() : 0;
+        return onCreateRequest(more && has() ? itemCountBefore + getSize(get()) : null, count);
+    }
+
+    public boolean hasPagesBefore() {
+        return mPageSpill != null && mPageSpill.hasPagesBefore();
+    }
+
+    /**
+     * Spill pages far away from the visible items to disk, if there are more than a few pages in
+     * memory.
+     */
+    public void trimPages(int firstVisiblePosition, int lastVisiblePosition) {
+
+        if (mPageSpill == null || isLoading() || mRestoringPage || isEmpty()) {
+            return;
+        }
+
+        List<ResourceType> list = get();
+        int pageSize = getDefaultLoadCount();
+        int marginSize = MARGIN_PAGE_COUNT * pageSize;
+        boolean changed = false;
+        while (list.size() > MAX_RESIDENT_PAGE_COUNT * pageSize) {
+            int itemCountBefore = firstVisiblePosition;
+            int itemCountAfter = list.size() - 1 - lastVisiblePosition;
+            if (itemCountBefore >= itemCountAfter && itemCountBefore >= marginSize + pageSize) {
+                List<ResourceType> page = list.subList(0, pageSize);
+                mPageSpill.pushPageBefore(new ArrayList<>(page));
+                page.clear();
+                firstVisiblePosition -= pageSize;
+                lastVisiblePosition -= pageSize;
+            } else if (itemCountAfter >= marginSize + pageSize) {
+                List<ResourceType> page = list.subList(list.size() - pageSize, list.size());
+                mPageSpill.pushPageAfter(new ArrayList<>(page));
+                page.clear();
+            } else {
+                break;
+            }
+            changed = true;
+        }
+        if (changed) {
+            onPagesChanged();
+        }
+    }
+
+    /**
+     * Restore the page right before the items in memory, if it has been spilled.
+     */
+    public void loadPageBefore() {
+
+        if (!hasPagesBefore() || isLoading() || mRestoringPage) {
+            return;
+        }
+
+        mRestoringPage = true;
+        int generation = mPageSpillGeneration;
+        mPageSpill.popPageBefore(page -> {
+            if (generation != mPageSpillGeneration) {
+                return;
+            }
+            mRestoringPage = false;
+            if (page == null) {
+                // Pages before a lost one can no longer be placed.
+                mPageSpill.clearPagesBefore();
+                return;
+            }
+            get().addAll(0, page);
+            onPagesChanged();
+        });
+    }
+
+    private void loadPageAfter() {
+        mRestoringPage = true;
+        int generation = mPageSpillGeneration;
+        mPageSpill.popPageAfter(page -> {
+            if (generation != mPageSpillGeneration) {
+                return;
+            }
+            mRestoringPage = false;
+            if (page == null) {
+                // Pages after a lost one can no longer be placed, so load from network again.
+                mPageSpill.clearPagesAfter();
+                load(true);
+                return;
+            }
+            get().addAll(page);
+            onPagesChanged();
+        });
+    }
+
+    private void clearPageSpill() {
+        if (mPageSpill == null) {
+            return;
+        }
+        mPageSpill.clear();
+        ++mPageSpillGeneration;
+        mRestoringPage = false;
+    }
 }
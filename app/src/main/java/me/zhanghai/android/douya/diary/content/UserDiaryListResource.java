@@ -12,6 +12,7 @@ import androidx.fragment.app.FragmentActivity;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -100,9 +101,11 @@ public class UserDiaryListResource extends MoreBaseListResourceFragment<DiaryLis
                 getListener().onDiaryListChanged(getRequestCode(),
                         Collections.unmodifiableList(get()));
             }
+            List<DiaryUpdatedEvent> events = new ArrayList<>(response.size());
             for (Diary diary : response) {
-                EventBusUtils.postAsync(new DiaryUpdatedEvent(diary, this));
+                events.add(new DiaryUpdatedEvent(diary, this));
             }
+            EventBusUtils.postAsyncBatch(events);
         } else {
             getListener().onLoadDiaryListFinished(getRequestCode());
             getListener().onLoadDiaryListError(getRequestCode(), error);
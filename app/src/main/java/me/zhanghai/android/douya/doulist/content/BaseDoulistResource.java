@@ -8,6 +8,7 @@ package me.zhanghai.android.douya.doulist.content;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -42,9 +43,11 @@ public abstract class BaseDoulistResource
                 getListener().onDoulistListChanged(getRequestCode(),
                         Collections.unmodifiableList(get()));
             }
+            List<DoulistUpdatedEvent> events = new ArrayList<>(response.size());
             for (Doulist doulist : response) {
-                EventBusUtils.postAsync(new DoulistUpdatedEvent(doulist, this));
+                events.add(new DoulistUpdatedEvent(doulist, this));
             }
+            EventBusUtils.postAsyncBatch(events);
         } else {
             getListener().onLoadDoulistListFinished(getRequestCode());
             getListener().onLoadDoulistListError(getRequestCode(), error);
@@ -77,4 +77,10 @@ public class ItemRelatedDoulistListResource extends BaseDoulistResource {
     protected ApiRequest<DoulistList> onCreateRequest(Integer start, Integer count) {
         return ApiService.getInstance().getItemRelatedDoulistList(mItemType, mItemId, start, count);
     }
+
+    @Override
+    protected int getRequestPriority() {
+        // Shown near the bottom of the item page.
+        return ApiRequest.Priority.LOW;
+    }
 }
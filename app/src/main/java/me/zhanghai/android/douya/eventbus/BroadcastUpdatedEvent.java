@@ -22,6 +22,11 @@ public class BroadcastUpdatedEvent extends Event {
         this.broadcast = broadcast;
     }
 
+    @SuppressWarnings("deprecation")
+    public long getBroadcastId() {
+        return broadcast.id;
+    }
+
     @SuppressWarnings("deprecation")
     private void mergeAndRepost(Broadcast oldBroadcast, Object source) {
         boolean changed = false;
@@ -9,9 +9,14 @@ import android.os.Handler;
 
 import org.greenrobot.eventbus.EventBus;
 
+import java.util.List;
+
 public class EventBusUtils {
 
     private static final EventBus sEventBus = EventBus.builder()
+            // Generated by the EventBus annotation processor, so that registration doesn't need to
+            // reflect over subscriber classes.
+            .addIndex(new EventBusIndex())
             .strictMethodVerification(true)
             .throwSubscriberException(true)
             .build();
@@ -34,6 +39,20 @@ public class EventBusUtils {
         new Handler().post(() -> sEventBus.post(event));
     }
 
+    /**
+     * Post a list of events in order with a single message, instead of one message per event.
+     */
+    public static void postAsyncBatch(List<?> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        new Handler().post(() -> {
+            for (Object event : events) {
+                sEventBus.post(event);
+            }
+        });
+    }
+
     public static void cancel(Object event) {
         sEventBus.cancelEventDelivery(event);
     }
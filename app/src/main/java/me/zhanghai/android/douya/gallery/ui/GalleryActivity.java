@@ -23,14 +23,21 @@ public class GalleryActivity extends AppCompatActivity {
     private static final String KEY_PREFIX = GalleryActivity.class.getName() + '.';
 
     private static final String EXTRA_IMAGE_LIST = KEY_PREFIX + "image_list";
+    private static final String EXTRA_THUMBNAIL_LIST = KEY_PREFIX + "thumbnail_list";
     private static final String EXTRA_POSITION = KEY_PREFIX + "position";
 
-    private static Intent makeIntent(ArrayList<Uri> imageList, int position, Context context) {
+    private static Intent makeIntent(ArrayList<Uri> imageList, ArrayList<Uri> thumbnailList,
+                                     int position, Context context) {
         return new Intent(context, GalleryActivity.class)
                 .putParcelableArrayListExtra(EXTRA_IMAGE_LIST, imageList)
+                .putParcelableArrayListExtra(EXTRA_THUMBNAIL_LIST, thumbnailList)
                 .putExtra(EXTRA_POSITION, position);
     }
 
+    private static Intent makeIntent(ArrayList<Uri> imageList, int position, Context context) {
+        return makeIntent(imageList, null, position, context);
+    }
+
     public static Intent makeIntent(List<Uri> imageList, int position, Context context) {
         return makeIntent(new ArrayList<>(imageList), position, context);
     }
@@ -47,10 +54,13 @@ public class GalleryActivity extends AppCompatActivity {
     public static Intent makeImageListIntent(List<? extends ImageItem> imageList, int position,
                                              Context context) {
         ArrayList<Uri> imageUriList = new ArrayList<>();
+        // The medium images are usually cached already since they are shown in lists.
+        ArrayList<Uri> thumbnailUriList = new ArrayList<>();
         for (ImageItem image : imageList) {
             imageUriList.add(Uri.parse(image.getLargeUrl()));
+            thumbnailUriList.add(Uri.parse(image.getMediumUrl()));
         }
-        return makeIntent(imageUriList, position, context);
+        return makeIntent(imageUriList, thumbnailUriList, position, context);
     }
 
     public static Intent makeIntent(Uri imageUri, Context context) {
@@ -62,7 +72,7 @@ public class GalleryActivity extends AppCompatActivity {
     }
 
     public static Intent makeIntent(ImageItem image, Context context) {
-        return makeIntent(image.getLargeUrl(), context);
+        return makeImageListIntent(Collections.singletonList(image), 0, context);
     }
 
     @Override
@@ -75,9 +85,11 @@ public class GalleryActivity extends AppCompatActivity {
         if (savedInstanceState == null) {
             Intent intent = getIntent();
             ArrayList<Uri> imageList = intent.getParcelableArrayListExtra(EXTRA_IMAGE_LIST);
+            ArrayList<Uri> thumbnailList = intent.getParcelableArrayListExtra(
+                    EXTRA_THUMBNAIL_LIST);
             int position = intent.getIntExtra(EXTRA_POSITION, 0);
-            FragmentUtils.add(GalleryFragment.newInstance(imageList, position), this,
-                    android.R.id.content);
+            FragmentUtils.add(GalleryFragment.newInstance(imageList, thumbnailList, position),
+                    this, android.R.id.content);
         }
     }
 }
@@ -5,6 +5,7 @@
 
 package me.zhanghai.android.douya.gallery.ui;
 
+import android.content.Context;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
 
@@ -14,6 +15,7 @@ import androidx.collection.SparseArrayCompat;
 import android.text.TextUtils;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ImageView;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
@@ -44,12 +46,27 @@ import me.zhanghai.android.douya.util.ViewUtils;
 
 public class GalleryAdapter extends ViewStatePagerAdapter {
 
+    // Pages within this distance from the current one are downloaded ahead of being instantiated.
+    private static final int PREFETCH_DISTANCE = 2;
+
     private List<Uri> mImageList;
+    @Nullable
+    private List<Uri> mThumbnailList;
     private Listener mListener;
     private SparseArrayCompat<File> mFileMap = new SparseArrayCompat<>();
 
-    public GalleryAdapter(List<Uri> imageList, Listener listener) {
+    private SparseArrayCompat<ViewHolder> mHolders = new SparseArrayCompat<>();
+    private SparseArrayCompat<Prefetch> mPrefetches = new SparseArrayCompat<>();
+    private int mPrimaryPosition = -1;
+
+    /**
+     * @param thumbnailList Images shown while the images are being downloaded, only if they are
+     *                      already cached, or {@code null}.
+     */
+    public GalleryAdapter(List<Uri> imageList, @Nullable List<Uri> thumbnailList,
+                          Listener listener) {
         mImageList = imageList;
+        mThumbnailList = thumbnailList;
         mListener = listener;
     }
 
@@ -74,11 +91,70 @@ public class GalleryAdapter extends ViewStatePagerAdapter {
                 mListener.onTap();
             }
         });
-        loadImageForPosition(position, holder);
+        mHolders.put(position, holder);
+        loadThumbnailForPosition(position, holder);
+        Prefetch prefetch = mPrefetches.get(position);
+        if (prefetch != null) {
+            // Don't download the image again, since the progress listener prevents Glide from
+            // sharing the job of the prefetch.
+            prefetch.mHolder = holder;
+            holder.progress.setIndeterminate(true);
+            ViewUtils.fadeIn(holder.progress);
+        } else {
+            loadImageForPosition(position, holder);
+        }
         container.addView(layout);
         return layout;
     }
 
+    @Override
+    public void setPrimaryItem(@NonNull ViewGroup container, int position,
+                               @NonNull Object object) {
+        super.setPrimaryItem(container, position, object);
+
+        if (mPrimaryPosition == position) {
+            return;
+        }
+        mPrimaryPosition = position;
+        prefetchAroundPosition(position, container.getContext());
+    }
+
+    private void prefetchAroundPosition(int position, Context context) {
+        for (int i = mPrefetches.size() - 1; i >= 0; --i) {
+            Prefetch prefetch = mPrefetches.valueAt(i);
+            if (Math.abs(prefetch.mPosition - position) > PREFETCH_DISTANCE
+                    && prefetch.mHolder == null) {
+                mPrefetches.removeAt(i);
+                GlideApp.with(context).clear(prefetch);
+            }
+        }
+        int start = Math.max(0, position - PREFETCH_DISTANCE);
+        int end = Math.min(position + PREFETCH_DISTANCE, getCount() - 1);
+        for (int i = start; i <= end; ++i) {
+            // Instantiated pages are loading on their own.
+            if (mFileMap.get(i) != null || mPrefetches.get(i) != null || mHolders.get(i) != null) {
+                continue;
+            }
+            Prefetch prefetch = new Prefetch(i);
+            mPrefetches.put(i, prefetch);
+            // RequestManager.downloadOnly() has a low priority.
+            GlideApp.with(context)
+                    .downloadOnly()
+                    .load(mImageList.get(i))
+                    .into(prefetch);
+        }
+    }
+
+    private void loadThumbnailForPosition(int position, ViewHolder holder) {
+        if (mThumbnailList == null) {
+            return;
+        }
+        GlideApp.with(holder.thumbnail)
+                .load(mThumbnailList.get(position))
+                .onlyRetrieveFromCache(true)
+                .into(holder.thumbnail);
+    }
+
     private void loadImageForPosition(int position, ViewHolder holder) {
         ViewUtils.fadeIn(holder.progress);
         GlideApp.with(holder.progress.getContext())
@@ -109,16 +185,22 @@ public class GalleryAdapter extends ViewStatePagerAdapter {
                     @Override
                     public void onResourceReady(File file,
                                                 Transition<? super File> transition) {
-                        mFileMap.put(position, file);
-                        if (mListener != null) {
-                            mListener.onFileDownloaded(position);
-                        }
-                        holder.progress.setIndeterminate(true);
-                        loadImageFromFile(file, holder);
+                        onFileDownloaded(position, file, holder);
                     }
                 });
     }
 
+    private void onFileDownloaded(int position, File file, @Nullable ViewHolder holder) {
+        mFileMap.put(position, file);
+        if (mListener != null) {
+            mListener.onFileDownloaded(position);
+        }
+        if (holder != null) {
+            holder.progress.setIndeterminate(true);
+            loadImageFromFile(file, holder);
+        }
+    }
+
     private void loadImageFromFile(final File file, final ViewHolder holder) {
         GlideApp
                 .with(holder.progress.getContext())
@@ -158,6 +240,7 @@ public class GalleryAdapter extends ViewStatePagerAdapter {
                                                boolean isFirstResource) {
                     ViewUtils.fadeOut(holder.progress);
                     ViewUtils.setVisibleOrGone(holder.image, true);
+                    ViewUtils.fadeOut(holder.thumbnail);
                     return false;
                 }
                 @Override
@@ -196,6 +279,7 @@ public class GalleryAdapter extends ViewStatePagerAdapter {
                                     (float) viewHeight / imageHeight);
                             holder.largeImage.setDoubleTapZoomScale(cropScale);
                             ViewUtils.crossfade(holder.progress, holder.largeImage);
+                            ViewUtils.fadeOut(holder.thumbnail);
                         }
                         @Override
                         public void onImageLoadError(Exception e) {
@@ -228,12 +312,20 @@ public class GalleryAdapter extends ViewStatePagerAdapter {
         (e != null ? e : new NullPointerException()).printStackTrace();
         holder.errorText.setText(resId);
         ViewUtils.crossfade(holder.progress, holder.errorText);
+        ViewUtils.fadeOut(holder.thumbnail);
     }
 
     @Override
     public void onDestroyView(@NonNull ViewGroup container, int position, @NonNull View view) {
         ViewHolder holder = (ViewHolder) view.getTag();
+        GlideApp.with(holder.thumbnail).clear(holder.thumbnail);
         GlideApp.with(holder.image).clear(holder.image);
+        mHolders.remove(position);
+        Prefetch prefetch = mPrefetches.get(position);
+        if (prefetch != null) {
+            // Keep the prefetch if still near, or cancel it upon the next primary item change.
+            prefetch.mHolder = null;
+        }
         container.removeView(view);
     }
 
@@ -246,8 +338,38 @@ public class GalleryAdapter extends ViewStatePagerAdapter {
         void onFileDownloaded(int position);
     }
 
+    private class Prefetch extends SimpleTarget<File> {
+
+        public final int mPosition;
+        // The instantiated page waiting for this prefetch, if any.
+        @Nullable
+        public ViewHolder mHolder;
+
+        public Prefetch(int position) {
+            mPosition = position;
+        }
+
+        @Override
+        public void onResourceReady(File file, Transition<? super File> transition) {
+            mPrefetches.remove(mPosition);
+            onFileDownloaded(mPosition, file, mHolder);
+        }
+
+        @Override
+        public void onLoadFailed(@Nullable Drawable errorDrawable) {
+            mPrefetches.remove(mPosition);
+            if (mHolder != null) {
+                // Retry with progress shown.
+                mHolder.progress.setIndeterminate(false);
+                loadImageForPosition(mPosition, mHolder);
+            }
+        }
+    }
+
     static class ViewHolder {
 
+        @BindView(R.id.thumbnail)
+        public ImageView thumbnail;
         @BindView(R.id.image)
         public PhotoView image;
         @BindView(R.id.largeImage)
@@ -48,6 +48,7 @@ public class GalleryFragment extends Fragment {
     private static final String KEY_PREFIX = GalleryFragment.class.getName() + '.';
 
     private static final String EXTRA_IMAGE_LIST = KEY_PREFIX + "image_list";
+    private static final String EXTRA_THUMBNAIL_LIST = KEY_PREFIX + "thumbnail_list";
     private static final String EXTRA_POSITION = KEY_PREFIX + "position";
 
     private static final int REQUEST_CODE_SAVE_IMAGE_PERMISSION = 1;
@@ -67,23 +68,30 @@ public class GalleryFragment extends Fragment {
     private MenuItem mShareMenuItem;
 
     private ArrayList<Uri> mImageList;
+    private ArrayList<Uri> mThumbnailList;
     private int mInitialPosition;
 
     private SystemUiHelper mSystemUiHelper;
 
     private GalleryAdapter mAdapter;
 
-    public static GalleryFragment newInstance(ArrayList<Uri> imageList, int position) {
+    /**
+     * @param thumbnailList Images to show while the images are being downloaded if they are
+     *                      already cached, or {@code null}.
+     */
+    public static GalleryFragment newInstance(ArrayList<Uri> imageList,
+                                              ArrayList<Uri> thumbnailList, int position) {
         //noinspection deprecation
         GalleryFragment fragment = new GalleryFragment();
         FragmentUtils.getArgumentsBuilder(fragment)
                 .putParcelableArrayList(EXTRA_IMAGE_LIST, imageList)
+                .putParcelableArrayList(EXTRA_THUMBNAIL_LIST, thumbnailList)
                 .putInt(EXTRA_POSITION, position);
         return fragment;
     }
 
     /**
-     * @deprecated Use {@link #newInstance(ArrayList, int)} instead.
+     * @deprecated Use {@link #newInstance(ArrayList, ArrayList, int)} instead.
      */
     public GalleryFragment() {}
 
@@ -93,6 +101,7 @@ public class GalleryFragment extends Fragment {
 
         Bundle arguments = getArguments();
         mImageList = arguments.getParcelableArrayList(EXTRA_IMAGE_LIST);
+        mThumbnailList = arguments.getParcelableArrayList(EXTRA_THUMBNAIL_LIST);
         mInitialPosition = arguments.getInt(EXTRA_POSITION);
 
         setHasOptionsMenu(true);
@@ -141,7 +150,7 @@ public class GalleryFragment extends Fragment {
         // This will set up window flags.
         mSystemUiHelper.show();
 
-        mAdapter = new GalleryAdapter(mImageList, new GalleryAdapter.Listener() {
+        mAdapter = new GalleryAdapter(mImageList, mThumbnailList, new GalleryAdapter.Listener() {
             @Override
             public void onTap() {
                 mSystemUiHelper.toggle();
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.glide;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+
+import java.util.List;
+
+import me.zhanghai.android.douya.util.RecyclerViewUtils;
+
+/**
+ * Preloads images of the items ahead of the scroll direction of a {@link RecyclerView} with any
+ * layout manager, by feeding its visible range to a {@link ListPreloader}, which also cancels the
+ * preloads when the scroll direction changes.
+ * <p>
+ * Preload requests must be the same as the requests made upon binding and have the exact size of
+ * their targets, so that binding hits the memory cache.
+ *
+ * @see com.bumptech.glide.ListPreloader
+ */
+public class RecyclerViewPreloader extends RecyclerView.OnScrollListener {
+
+    @NonNull
+    private final ListPreloader<Request> mListPreloader;
+
+    private int mLastFirstVisiblePosition = RecyclerView.NO_POSITION;
+    private int mLastVisibleItemCount;
+    private int mLastTotalItemCount;
+
+    public RecyclerViewPreloader(@NonNull RequestManager requestManager,
+                                 @NonNull RequestProvider requestProvider, int maxPreload) {
+        PreloadProvider preloadProvider = new PreloadProvider(requestProvider);
+        mListPreloader = new ListPreloader<>(requestManager, preloadProvider, preloadProvider,
+                maxPreload);
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        int[] range = RecyclerViewUtils.getVisibleAdapterPositionRange(recyclerView);
+        if (range == null) {
+            return;
+        }
+        int firstVisiblePosition = range[0];
+        int lastVisiblePosition = range[1];
+        int visibleItemCount = lastVisiblePosition - firstVisiblePosition + 1;
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        int totalItemCount = adapter != null ? adapter.getItemCount() : 0;
+        if (firstVisiblePosition == mLastFirstVisiblePosition
+                && visibleItemCount == mLastVisibleItemCount
+                && totalItemCount == mLastTotalItemCount) {
+            return;
+        }
+        mLastFirstVisiblePosition = firstVisiblePosition;
+        mLastVisibleItemCount = visibleItemCount;
+        mLastTotalItemCount = totalItemCount;
+        // ListPreloader doesn't use the AbsListView.
+        mListPreloader.onScroll(null, firstVisiblePosition, visibleItemCount, totalItemCount);
+    }
+
+    public interface RequestProvider {
+
+        /**
+         * @return The requests to preload for the item at the adapter position, which can be
+         *         outside the range of the adapter providing the items.
+         */
+        @NonNull
+        List<Request> getPreloadRequests(int position);
+    }
+
+    public static class Request {
+
+        @NonNull
+        private final RequestBuilder<?> mRequestBuilder;
+        private final int mWidth;
+        private final int mHeight;
+
+        public Request(@NonNull RequestBuilder<?> requestBuilder, int width, int height) {
+            mRequestBuilder = requestBuilder;
+            mWidth = width;
+            mHeight = height;
+        }
+    }
+
+    private static class PreloadProvider implements ListPreloader.PreloadModelProvider<Request>,
+            ListPreloader.PreloadSizeProvider<Request> {
+
+        @NonNull
+        private final RequestProvider mRequestProvider;
+
+        public PreloadProvider(@NonNull RequestProvider requestProvider) {
+            mRequestProvider = requestProvider;
+        }
+
+        @NonNull
+        @Override
+        public List<Request> getPreloadItems(int position) {
+            return mRequestProvider.getPreloadRequests(position);
+        }
+
+        @Nullable
+        @Override
+        public RequestBuilder<?> getPreloadRequestBuilder(@NonNull Request item) {
+            return item.mRequestBuilder;
+        }
+
+        @Nullable
+        @Override
+        public int[] getPreloadSize(@NonNull Request item, int adapterPosition,
+                                    int perItemPosition) {
+            return new int[] { item.mWidth, item.mHeight };
+        }
+    }
+}
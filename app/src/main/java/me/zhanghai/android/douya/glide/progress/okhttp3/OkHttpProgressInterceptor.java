@@ -5,9 +5,11 @@
 
 package me.zhanghai.android.douya.glide.progress.okhttp3;
 
+import android.os.SystemClock;
 import androidx.annotation.NonNull;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import me.zhanghai.android.douya.glide.progress.ProgressListener;
 import me.zhanghai.android.douya.util.AppUtils;
@@ -24,6 +26,8 @@ import okio.Source;
 
 public class OkHttpProgressInterceptor implements Interceptor {
 
+    private static final long UNKNOWN_LENGTH_INTERVAL_MILLIS = 100;
+
     @Override
     public Response intercept(@NonNull Chain chain) throws IOException {
         Request request = chain.request();
@@ -67,28 +71,82 @@ public class OkHttpProgressInterceptor implements Interceptor {
             return bufferedSource;
         }
 
+        /**
+         * Coalesces progress into at most one pending message on the UI thread, which is only
+         * posted when the percentage changes, or once per interval if the content length is
+         * unknown. The completion is always delivered, exactly once.
+         */
         private class ProgressSource extends ForwardingSource {
 
-            private long totalBytesRead;
+            private final long contentLength;
+
+            private volatile long totalBytesRead;
+            private volatile boolean done;
+            private final AtomicBoolean notificationPending = new AtomicBoolean();
+
+            private int lastPercentage = -1;
+            private long lastNotificationTime;
+
+            // Accessed only on the UI thread.
+            private boolean doneNotified;
+
+            private final Runnable notifyRunnable = new Runnable() {
+                @Override
+                public void run() {
+                    notificationPending.set(false);
+                    if (doneNotified) {
+                        return;
+                    }
+                    // Read done first, so that the final total is seen along with it.
+                    boolean isDone = done;
+                    progressListener.onProgress(totalBytesRead, contentLength, isDone);
+                    if (isDone) {
+                        doneNotified = true;
+                    }
+                }
+            };
 
             public ProgressSource(Source source) {
                 super(source);
+
+                contentLength = responseBody.contentLength();
             }
 
             @Override
             public long read(@NonNull Buffer sink, long byteCount) throws IOException {
-                final long bytesRead = super.read(sink, byteCount);
+                long bytesRead = super.read(sink, byteCount);
                 // read() returns the number of bytes read, or -1 if this source is exhausted.
-                totalBytesRead += bytesRead != -1 ? bytesRead : 0;
-                AppUtils.runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        progressListener.onProgress(totalBytesRead, responseBody.contentLength(),
-                                bytesRead == -1);
+                if (bytesRead == -1) {
+                    if (!done) {
+                        done = true;
+                        notifyProgress();
+                    }
+                    return bytesRead;
+                }
+                totalBytesRead += bytesRead;
+                if (contentLength > 0) {
+                    int percentage = (int) (totalBytesRead * 100 / contentLength);
+                    if (percentage == lastPercentage) {
+                        return bytesRead;
                     }
-                });
+                    lastPercentage = percentage;
+                } else {
+                    long time = SystemClock.elapsedRealtime();
+                    if (time - lastNotificationTime < UNKNOWN_LENGTH_INTERVAL_MILLIS) {
+                        return bytesRead;
+                    }
+                    lastNotificationTime = time;
+                }
+                notifyProgress();
                 return bytesRead;
             }
+
+            private void notifyProgress() {
+                // A pending notification will read the latest progress when it runs.
+                if (notificationPending.compareAndSet(false, true)) {
+                    AppUtils.runOnUiThread(notifyRunnable);
+                }
+            }
         }
     }
 }
@@ -12,6 +12,7 @@ import java.util.List;
 
 import me.zhanghai.android.douya.app.TargetedRetainedFragment;
 import me.zhanghai.android.douya.doulist.content.ItemRelatedDoulistListResource;
+import me.zhanghai.android.douya.network.RequestFragment;
 import me.zhanghai.android.douya.network.api.ApiError;
 import me.zhanghai.android.douya.network.api.info.frodo.CollectableItem;
 import me.zhanghai.android.douya.network.api.info.frodo.Doulist;
@@ -180,6 +181,45 @@ public abstract class BaseItemFragmentResource<SimpleItemType extends Collectabl
                 this);
     }
 
+    /**
+     * Start the pending load of a section before other requests, because it is coming into view.
+     */
+    public void promoteLoad(Section section) {
+        RequestFragment<?, ?> resource = getSectionResource(section);
+        if (resource != null) {
+            resource.promoteRequest();
+        }
+    }
+
+    private RequestFragment<?, ?> getSectionResource(Section section) {
+        switch (section) {
+            case ITEM:
+                return mItemResource;
+            case RATING:
+                return mRatingResource;
+            case PHOTO_LIST:
+                return mPhotoListResource;
+            case CELEBRITY_LIST:
+                return mCelebrityListResource;
+            case AWARD_LIST:
+                return mAwardListResource;
+            case ITEM_COLLECTION_LIST:
+                return mItemCollectionListResource;
+            case GAME_GUIDE_LIST:
+                return mGameGuideListResource;
+            case REVIEW_LIST:
+                return mReviewListResource;
+            case FORUM_TOPIC_LIST:
+                return mForumTopicListResource;
+            case RECOMMENDATION_LIST:
+                return mRecommendationListResource;
+            case RELATED_DOULIST_LIST:
+                return mRelatedDoulistListResource;
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
     private void ensureArguments() {
         if (mItemId != ITEM_ID_INVALID) {
             return;
@@ -636,4 +676,21 @@ public abstract class BaseItemFragmentResource<SimpleItemType extends Collectabl
         void onItemCollectionListItemWriteStarted(int requestCode, int position);
         void onItemCollectionListItemWriteFinished(int requestCode, int position);
     }
+
+    /**
+     * The resource that an item of the data adapter is waiting for.
+     */
+    public enum Section {
+        ITEM,
+        RATING,
+        PHOTO_LIST,
+        CELEBRITY_LIST,
+        AWARD_LIST,
+        ITEM_COLLECTION_LIST,
+        GAME_GUIDE_LIST,
+        REVIEW_LIST,
+        FORUM_TOPIC_LIST,
+        RECOMMENDATION_LIST,
+        RELATED_DOULIST_LIST
+    }
 }
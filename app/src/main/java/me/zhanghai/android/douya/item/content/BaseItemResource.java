@@ -109,6 +109,12 @@ public abstract class BaseItemResource<SimpleItemType extends CollectableItem,
         return ApiService.getInstance().getItem(getItemType(), mItemId);
     }
 
+    @Override
+    protected int getRequestPriority() {
+        // Shown above the fold.
+        return ApiRequest.Priority.HIGH;
+    }
+
     private CollectableItem.Type getItemType() {
         // Try our best for Movie/TV types.
         if (has()) {
@@ -81,6 +81,12 @@ public class ItemAwardListResource
         return ApiService.getInstance().getItemAwardList(mItemType, mItemId, start, count);
     }
 
+    @Override
+    protected int getRequestPriority() {
+        // Shown near the bottom of the item page.
+        return ApiRequest.Priority.LOW;
+    }
+
     @Override
     protected void onLoadStarted() {
         getListener().onLoadAwardListStarted(getRequestCode());
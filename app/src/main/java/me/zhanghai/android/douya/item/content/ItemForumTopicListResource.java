@@ -90,6 +90,12 @@ public class ItemForumTopicListResource
                 count);
     }
 
+    @Override
+    protected int getRequestPriority() {
+        // Shown near the bottom of the item page.
+        return ApiRequest.Priority.LOW;
+    }
+
     @Override
     protected void onLoadStarted() {
         getListener().onLoadForumTopicListStarted(getRequestCode());
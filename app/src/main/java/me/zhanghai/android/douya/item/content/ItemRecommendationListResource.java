@@ -83,6 +83,12 @@ public class ItemRecommendationListResource
         return ApiService.getInstance().getItemRecommendationList(mItemType, mItemId, null);
     }
 
+    @Override
+    protected int getRequestPriority() {
+        // Shown near the bottom of the item page.
+        return ApiRequest.Priority.LOW;
+    }
+
     @Override
     protected void onLoadStarted() {
         getListener().onLoadRecommendationListStarted(getRequestCode());
@@ -76,6 +76,12 @@ public class RatingResource extends ResourceFragment<Rating, Rating> {
         return ApiService.getInstance().getItemRating(mItemType, mItemId);
     }
 
+    @Override
+    protected int getRequestPriority() {
+        // Shown above the fold.
+        return ApiRequest.Priority.HIGH;
+    }
+
     @Override
     protected void onLoadStarted() {
         getListener().onLoadRatingStarted(getRequestCode());
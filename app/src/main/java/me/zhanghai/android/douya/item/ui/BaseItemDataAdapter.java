@@ -27,6 +27,7 @@ import butterknife.BindView;
 import butterknife.ButterKnife;
 import me.zhanghai.android.douya.R;
 import me.zhanghai.android.douya.gallery.ui.GalleryActivity;
+import me.zhanghai.android.douya.item.content.BaseItemFragmentResource.Section;
 import me.zhanghai.android.douya.link.UriHandler;
 import me.zhanghai.android.douya.network.api.info.frodo.CollectableItem;
 import me.zhanghai.android.douya.network.api.info.frodo.Doulist;
@@ -43,6 +44,7 @@ import me.zhanghai.android.douya.ui.BarrierDataAdapter;
 import me.zhanghai.android.douya.ui.DividerItemDecoration;
 import me.zhanghai.android.douya.ui.HorizontalImageAdapter;
 import me.zhanghai.android.douya.util.CollectionUtils;
+import me.zhanghai.android.douya.util.NestedRecyclerViewUtils;
 import me.zhanghai.android.douya.util.RecyclerViewUtils;
 import me.zhanghai.android.douya.util.TimeUtils;
 import me.zhanghai.android.douya.util.ViewUtils;
@@ -55,8 +57,20 @@ public abstract class BaseItemDataAdapter<T extends CollectableItem>
     private static final int ITEM_FORUM_TOPIC_LIST_MAX_SIZE = 5;
     private static final int ITEM_RELATED_DOULIST_LIST_MAX_SIZE = 5;
 
+    private static final int NESTED_LIST_INITIAL_PREFETCH_ITEM_COUNT = 4;
+
     private Listener<T> mListener;
 
+    // Nested lists of the same kind share a pool within this adapter.
+    private final RecyclerView.RecycledViewPool mPhotoListPool =
+            NestedRecyclerViewUtils.createPool();
+    private final RecyclerView.RecycledViewPool mCelebrityListPool =
+            NestedRecyclerViewUtils.createPool();
+    private final RecyclerView.RecycledViewPool mAwardListPool =
+            NestedRecyclerViewUtils.createPool();
+    private final RecyclerView.RecycledViewPool mRecommendationListPool =
+            NestedRecyclerViewUtils.createPool();
+
     public BaseItemDataAdapter(Listener<T> listener) {
         mListener = listener;
     }
@@ -65,6 +79,11 @@ public abstract class BaseItemDataAdapter<T extends CollectableItem>
         return mListener;
     }
 
+    /**
+     * @return The section whose load the item at the position, loaded or not, depends on.
+     */
+    public abstract Section getItemSection(int position);
+
     protected ItemCollectionHolder createItemCollectionHolder(ViewGroup parent) {
         ItemCollectionHolder holder = new ItemCollectionHolder(ViewUtils.inflate(
                 R.layout.item_fragment_collection, parent));
@@ -94,6 +113,9 @@ public abstract class BaseItemDataAdapter<T extends CollectableItem>
                 DividerItemDecoration.HORIZONTAL, R.drawable.transparent_divider_vertical_4dp,
                 holder.photoList.getContext()));
         holder.photoList.setAdapter(new HorizontalImageAdapter());
+        NestedRecyclerViewUtils.setUp(holder.photoList, NESTED_LIST_INITIAL_PREFETCH_ITEM_COUNT,
+                mPhotoListPool);
+        HorizontalImageAdapter.setUpPreloader(holder.photoList);
         return holder;
     }
 
@@ -107,6 +129,9 @@ public abstract class BaseItemDataAdapter<T extends CollectableItem>
                 DividerItemDecoration.HORIZONTAL, R.drawable.transparent_divider_vertical_16dp,
                 holder.celebrityList.getContext()));
         holder.celebrityList.setAdapter(new CelebrityListAdapter());
+        CelebrityListAdapter.setUpPreloader(holder.celebrityList);
+        NestedRecyclerViewUtils.setUp(holder.celebrityList,
+                NESTED_LIST_INITIAL_PREFETCH_ITEM_COUNT, mCelebrityListPool);
         return holder;
     }
 
@@ -120,6 +145,8 @@ public abstract class BaseItemDataAdapter<T extends CollectableItem>
                 DividerItemDecoration.HORIZONTAL, R.drawable.transparent_divider_vertical_16dp,
                 holder.awardList.getContext()));
         holder.awardList.setAdapter(new ItemAwardListAdapter());
+        NestedRecyclerViewUtils.setUp(holder.awardList, NESTED_LIST_INITIAL_PREFETCH_ITEM_COUNT,
+                mAwardListPool);
         return holder;
     }
 
@@ -161,6 +188,8 @@ public abstract class BaseItemDataAdapter<T extends CollectableItem>
                 DividerItemDecoration.HORIZONTAL, R.drawable.transparent_divider_vertical_16dp,
                 holder.recommendationList.getContext()));
         holder.recommendationList.setAdapter(new RecommendationListAdapter());
+        NestedRecyclerViewUtils.setUp(holder.recommendationList,
+                NESTED_LIST_INITIAL_PREFETCH_ITEM_COUNT, mRecommendationListPool);
         return holder;
     }
 
@@ -56,6 +56,11 @@ public abstract class BaseItemFragment<SimpleItemType extends CollectableItem,
     private static final String EXTRA_SIMPLE_ITEM = KEY_PREFIX + "simple_item";
     private static final String EXTRA_ITEM = KEY_PREFIX + "item";
 
+    // Sections are promoted when the last visible item is this close to the first one not loaded.
+    private static final int PROMOTE_LOAD_DISTANCE = 2;
+    // Number of sections after the last loaded item to promote.
+    private static final int PROMOTE_LOAD_COUNT = 2;
+
     @BindView(R.id.appBarWrapper)
     AppBarWrapperLayout mAppBarWrapperLayout;
     @BindView(R.id.toolbar)
@@ -142,6 +147,21 @@ public abstract class BaseItemFragment<SimpleItemType extends CollectableItem,
         mContentList.setLayoutManager(new LinearLayoutManager(activity));
         mAdapter = onCreateAdapter();
         mContentList.setAdapter(mAdapter);
+        mContentList.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0) {
+                    promoteLoadsComingIntoView();
+                }
+            }
+        });
+        mAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                // Layout hasn't happened yet.
+                mContentList.post(BaseItemFragment.this::promoteLoadsComingIntoView);
+            }
+        });
         mContentList.setBackdropRatio(backdropRatio);
         mContentList.setPaddingTopPaddingExtra(getContentListPaddingTopExtra());
         if (hasBackdrop) {
@@ -270,6 +290,30 @@ public abstract class BaseItemFragment<SimpleItemType extends CollectableItem,
 
     protected abstract BarrierAdapter onCreateAdapter();
 
+    /**
+     * Start the loads of the sections right after the loaded items before other requests, if the
+     * user is about to see them.
+     */
+    private void promoteLoadsComingIntoView() {
+        BaseItemDataAdapter<?> dataAdapter = (BaseItemDataAdapter<?>) mAdapter.getAdapters()[0];
+        int loadedCount = dataAdapter.getItemCount();
+        int totalCount = dataAdapter.getTotalItemCount();
+        // The item itself is always loaded first.
+        if (loadedCount == 0 || loadedCount >= totalCount) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) mContentList.getLayoutManager();
+        int lastVisiblePosition = layoutManager.findLastVisibleItemPosition();
+        if (lastVisiblePosition == RecyclerView.NO_POSITION
+                || lastVisiblePosition + PROMOTE_LOAD_DISTANCE < loadedCount) {
+            return;
+        }
+        for (int position = loadedCount, end = Math.min(loadedCount + PROMOTE_LOAD_COUNT,
+                totalCount); position < end; ++position) {
+            mResource.promoteLoad(dataAdapter.getItemSection(position));
+        }
+    }
+
     protected int getContentListPaddingTopExtra() {
         return 0;
     }
@@ -5,14 +5,20 @@
 
 package me.zhanghai.android.douya.item.ui;
 
+import android.content.Context;
 import androidx.recyclerview.widget.RecyclerView;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
+import java.util.Collections;
+
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import me.zhanghai.android.douya.R;
+import me.zhanghai.android.douya.glide.GlideApp;
+import me.zhanghai.android.douya.glide.GlideRequests;
+import me.zhanghai.android.douya.glide.RecyclerViewPreloader;
 import me.zhanghai.android.douya.link.UriHandler;
 import me.zhanghai.android.douya.network.api.info.frodo.SimpleCelebrity;
 import me.zhanghai.android.douya.ui.RatioImageView;
@@ -23,6 +29,11 @@ import me.zhanghai.android.douya.util.ViewUtils;
 public class CelebrityListAdapter
         extends SimpleAdapter<SimpleCelebrity, CelebrityListAdapter.ViewHolder> {
 
+    private static final int MAX_PRELOAD_ITEM_COUNT = 4;
+
+    private static final int AVATAR_RATIO_WIDTH = 2;
+    private static final int AVATAR_RATIO_HEIGHT = 3;
+
     public CelebrityListAdapter() {
         setHasStableIds(true);
     }
@@ -35,7 +46,7 @@ public class CelebrityListAdapter
     @Override
     public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
         ViewHolder holder = new ViewHolder(ViewUtils.inflate(R.layout.item_celebrity_item, parent));
-        holder.avatarImage.setRatio(2, 3);
+        holder.avatarImage.setRatio(AVATAR_RATIO_WIDTH, AVATAR_RATIO_HEIGHT);
         return holder;
     }
 
@@ -55,6 +66,28 @@ public class CelebrityListAdapter
         });
     }
 
+    /**
+     * Preload avatars ahead of horizontal scrolling, for a list with this adapter set.
+     */
+    public static void setUpPreloader(RecyclerView recyclerView) {
+        Context context = recyclerView.getContext();
+        GlideRequests requests = GlideApp.with(context);
+        // Same as RatioImageView.onMeasure() with the attributes in item_celebrity_item.xml.
+        int height = context.getResources().getDimensionPixelSize(
+                R.dimen.item_celebrity_avatar_height);
+        int width = Math.round((float) AVATAR_RATIO_WIDTH / AVATAR_RATIO_HEIGHT * height);
+        recyclerView.addOnScrollListener(new RecyclerViewPreloader(requests, position -> {
+            CelebrityListAdapter adapter = (CelebrityListAdapter) recyclerView.getAdapter();
+            if (position >= adapter.getItemCount()) {
+                return Collections.emptyList();
+            }
+            SimpleCelebrity celebrity = adapter.getItem(position);
+            return Collections.singletonList(new RecyclerViewPreloader.Request(
+                    ImageUtils.makeImageRequest(requests, celebrity.avatar.getMediumUrl()), width,
+                    height));
+        }, MAX_PRELOAD_ITEM_COUNT));
+    }
+
     static class ViewHolder extends RecyclerView.ViewHolder {
 
         @BindView(R.id.avatar)
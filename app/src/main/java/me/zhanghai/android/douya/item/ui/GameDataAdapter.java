@@ -18,6 +18,7 @@ import butterknife.BindView;
 import butterknife.ButterKnife;
 import me.zhanghai.android.douya.R;
 import me.zhanghai.android.douya.gallery.ui.GalleryActivity;
+import me.zhanghai.android.douya.item.content.BaseItemFragmentResource.Section;
 import me.zhanghai.android.douya.link.UriHandler;
 import me.zhanghai.android.douya.network.api.info.frodo.CollectableItem;
 import me.zhanghai.android.douya.network.api.info.frodo.Doulist;
@@ -88,6 +89,31 @@ public class GameDataAdapter extends BaseItemDataAdapter<Game> {
         return Items.values().length;
     }
 
+    @Override
+    public Section getItemSection(int position) {
+        switch (Items.values()[position]) {
+            case HEADER:
+            case ITEM_COLLECTION:
+            case INTRODUCTION:
+                return Section.ITEM;
+            case BADGE_LIST:
+            case RATING:
+                return Section.RATING;
+            case PHOTO_LIST:
+                return Section.PHOTO_LIST;
+            case ITEM_COLLECTION_LIST:
+                return Section.ITEM_COLLECTION_LIST;
+            case GAME_GUIDE_LIST:
+                return Section.GAME_GUIDE_LIST;
+            case REVIEW_LIST:
+                return Section.REVIEW_LIST;
+            case RELATED_DOULIST_LIST:
+                return Section.RELATED_DOULIST_LIST;
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
     @Override
     protected boolean isItemLoaded(int position) {
         if (mData == null) {
@@ -19,6 +19,7 @@ import butterknife.BindView;
 import butterknife.ButterKnife;
 import me.zhanghai.android.douya.R;
 import me.zhanghai.android.douya.gallery.ui.GalleryActivity;
+import me.zhanghai.android.douya.item.content.BaseItemFragmentResource.Section;
 import me.zhanghai.android.douya.network.api.info.frodo.CollectableItem;
 import me.zhanghai.android.douya.network.api.info.frodo.Doulist;
 import me.zhanghai.android.douya.network.api.info.frodo.Honor;
@@ -85,6 +86,37 @@ public class MovieDataAdapter extends BaseItemDataAdapter<Movie> {
         return Items.values().length;
     }
 
+    @Override
+    public Section getItemSection(int position) {
+        switch (Items.values()[position]) {
+            case HEADER:
+            case ITEM_COLLECTION:
+            case INTRODUCTION:
+                return Section.ITEM;
+            case BADGE_LIST:
+            case RATING:
+                return Section.RATING;
+            case PHOTO_LIST:
+                return Section.PHOTO_LIST;
+            case CELEBRITY_LIST:
+                return Section.CELEBRITY_LIST;
+            case AWARD_LIST:
+                return Section.AWARD_LIST;
+            case ITEM_COLLECTION_LIST:
+                return Section.ITEM_COLLECTION_LIST;
+            case REVIEW_LIST:
+                return Section.REVIEW_LIST;
+            case FORUM_TOPIC_LIST:
+                return Section.FORUM_TOPIC_LIST;
+            case RECOMMENDATION_LIST:
+                return Section.RECOMMENDATION_LIST;
+            case RELATED_DOULIST_LIST:
+                return Section.RELATED_DOULIST_LIST;
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
     @Override
     protected boolean isItemLoaded(int position) {
         if (mData == null) {
@@ -19,6 +19,7 @@ import butterknife.BindView;
 import butterknife.ButterKnife;
 import me.zhanghai.android.douya.R;
 import me.zhanghai.android.douya.gallery.ui.GalleryActivity;
+import me.zhanghai.android.douya.item.content.BaseItemFragmentResource.Section;
 import me.zhanghai.android.douya.media.PlayMusicService;
 import me.zhanghai.android.douya.network.api.info.frodo.CollectableItem;
 import me.zhanghai.android.douya.network.api.info.frodo.Doulist;
@@ -87,6 +88,32 @@ public class MusicDataAdapter extends BaseItemDataAdapter<Music> {
         return Items.values().length;
     }
 
+    @Override
+    public Section getItemSection(int position) {
+        switch (Items.values()[position]) {
+            case HEADER:
+            case ITEM_COLLECTION:
+            case INTRODUCTION:
+            case TRACK_LIST:
+                return Section.ITEM;
+            case BADGE_LIST:
+            case RATING:
+                return Section.RATING;
+            case ITEM_COLLECTION_LIST:
+                return Section.ITEM_COLLECTION_LIST;
+            case REVIEW_LIST:
+                return Section.REVIEW_LIST;
+            case FORUM_TOPIC_LIST:
+                return Section.FORUM_TOPIC_LIST;
+            case RECOMMENDATION_LIST:
+                return Section.RECOMMENDATION_LIST;
+            case RELATED_DOULIST_LIST:
+                return Section.RELATED_DOULIST_LIST;
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
     @Override
     protected boolean isItemLoaded(int position) {
         if (mData == null) {
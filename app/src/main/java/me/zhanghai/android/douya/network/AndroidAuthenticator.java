@@ -49,15 +49,21 @@ public abstract class AndroidAuthenticator implements AuthenticationInterceptor.
         Request oldRequest = response.request();
         String oldAuthorization = oldRequest.header(Http.Headers.AUTHORIZATION);
         String oldAuthToken = Http.Headers.getTokenFromBearerAuthorization(oldAuthorization);
-        if (oldAuthToken != null) {
-            invalidateAuthToken(oldAuthToken);
-        }
-        return authenticate(oldRequest);
+        String authToken = AuthTokenCache.refresh(mAccount, mAuthTokenType, oldAuthToken,
+                this::invalidateAuthToken, this::retrieveAuthToken);
+        return oldRequest.newBuilder()
+                .header(Http.Headers.AUTHORIZATION, Http.Headers.makeBearerAuthorization(authToken))
+                .build();
     }
 
     public abstract boolean shouldRetryAuthentication(Response response);
 
     private String getAuthToken() throws IOException {
+        return AuthTokenCache.get(mAccount, mAuthTokenType, this::retrieveAuthToken);
+    }
+
+    @NonNull
+    private String retrieveAuthToken() throws IOException {
         AccountManagerFuture<Bundle> future = AccountUtils.getAccountManager().getAuthToken(
                 mAccount, mAuthTokenType, null, mNotifyAuthFailure, null, null);
         Bundle result;
@@ -81,7 +87,7 @@ public abstract class AndroidAuthenticator implements AuthenticationInterceptor.
         return authToken;
     }
 
-    private void invalidateAuthToken(String authToken) {
+    private void invalidateAuthToken(@NonNull String authToken) {
         AccountUtils.getAccountManager().invalidateAuthToken(mAccount.type, authToken);
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.network;
+
+import android.accounts.Account;
+import android.text.TextUtils;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.util.Pair;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide cache of auth tokens keyed by account and auth token type, so that retrieving an
+ * auth token doesn't need a binder call into AccountManager for every request.
+ * <p>
+ * Retrieval and refresh are serialized per key, so that concurrent requests share a single
+ * retrieval, and an expired auth token is only invalidated and refreshed once.
+ */
+public class AuthTokenCache {
+
+    private static final Map<Pair<Account, String>, Entry> sEntries = new HashMap<>();
+
+    private AuthTokenCache() {}
+
+    @NonNull
+    private static Entry getEntry(@NonNull Account account, @NonNull String authTokenType) {
+        Pair<Account, String> key = new Pair<>(account, authTokenType);
+        synchronized (sEntries) {
+            Entry entry = sEntries.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                sEntries.put(key, entry);
+            }
+            return entry;
+        }
+    }
+
+    @NonNull
+    public static String get(@NonNull Account account, @NonNull String authTokenType,
+                             @NonNull Retriever retriever) throws IOException {
+        Entry entry = getEntry(account, authTokenType);
+        String authToken = entry.mAuthToken;
+        if (authToken != null) {
+            return authToken;
+        }
+        synchronized (entry) {
+            if (entry.mAuthToken == null) {
+                entry.mAuthToken = retriever.retrieve();
+            }
+            return entry.mAuthToken;
+        }
+    }
+
+    /**
+     * Refresh an auth token that has been rejected by the server.
+     *
+     * @param oldAuthToken The rejected auth token, or {@code null} if unknown.
+     * @param invalidator Called at most once per rejected auth token, even if it was rejected for
+     *                    multiple concurrent requests.
+     */
+    @NonNull
+    public static String refresh(@NonNull Account account, @NonNull String authTokenType,
+                                 @Nullable String oldAuthToken, @NonNull Invalidator invalidator,
+                                 @NonNull Retriever retriever) throws IOException {
+        Entry entry = getEntry(account, authTokenType);
+        synchronized (entry) {
+            if (entry.mAuthToken != null && !TextUtils.equals(entry.mAuthToken, oldAuthToken)) {
+                // Someone else has already refreshed it.
+                return entry.mAuthToken;
+            }
+            entry.mAuthToken = null;
+            if (oldAuthToken != null) {
+                invalidator.invalidate(oldAuthToken);
+            }
+            entry.mAuthToken = retriever.retrieve();
+            return entry.mAuthToken;
+        }
+    }
+
+    public static void put(@NonNull Account account, @NonNull String authTokenType,
+                           @Nullable String authToken) {
+        Entry entry = getEntry(account, authTokenType);
+        synchronized (entry) {
+            entry.mAuthToken = authToken;
+        }
+    }
+
+    public static void remove(@NonNull String authToken) {
+        List<Entry> entries;
+        synchronized (sEntries) {
+            entries = new ArrayList<>(sEntries.values());
+        }
+        for (Entry entry : entries) {
+            synchronized (entry) {
+                if (TextUtils.equals(entry.mAuthToken, authToken)) {
+                    entry.mAuthToken = null;
+                }
+            }
+        }
+    }
+
+    public interface Retriever {
+        @NonNull
+        String retrieve() throws IOException;
+    }
+
+    public interface Invalidator {
+        void invalidate(@NonNull String authToken);
+    }
+
+    private static class Entry {
+        @Nullable
+        public volatile String mAuthToken;
+    }
+}
@@ -25,6 +25,7 @@ public class Http {
         public static final String ACCEPT_ENCODING = "Accept-Encoding";
         public static final String ACCEPT_VERSION = "X-Accept-Version";
         public static final String AUTHORIZATION = "Authorization";
+        public static final String CACHE_CONTROL = "Cache-Control";
         private static final String BEARER_PREFIX = "Bearer ";
         public static String makeBearerAuthorization(String token) {
             return BEARER_PREFIX + token;
@@ -42,8 +43,10 @@ public class Http {
         public static final String CONTENT_LENGTH = "Content-Length";
         public static final String CONTENT_TYPE = "Content-Type";
         public static final String Cookie = "Cookie";
+        public static final String PRAGMA = "Pragma";
         public static final String REFERER = "Referer";
         public static final String USER_AGENT = "User-Agent";
+        public static final String VARY = "Vary";
     }
 
     public static class ContentTypes {
@@ -53,6 +53,7 @@ public abstract class RequestFragment<RequestStateType, ResponseType>
 
         mRequest = onCreateRequest(requestState);
         mRequestState = requestState;
+        mRequest.setPriority(getRequestPriority());
         mRequest.enqueue(this);
 
         onRequestStarted();
@@ -62,6 +63,23 @@ public abstract class RequestFragment<RequestStateType, ResponseType>
         return false;
     }
 
+    /**
+     * @return One of {@link ApiRequest.Priority}.
+     */
+    protected int getRequestPriority() {
+        return ApiRequest.Priority.NORMAL;
+    }
+
+    /**
+     * Start the request, if it is still pending, before other requests, e.g. because its response
+     * is about to be seen.
+     */
+    public void promoteRequest() {
+        if (mRequest != null) {
+            mRequest.setPriority(ApiRequest.Priority.HIGH);
+        }
+    }
+
     protected abstract ApiRequest<ResponseType> onCreateRequest(RequestStateType requestState);
 
     protected abstract void onRequestStarted();
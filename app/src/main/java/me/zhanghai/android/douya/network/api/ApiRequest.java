@@ -21,10 +21,24 @@ public interface ApiRequest<T> extends Cloneable {
 
     boolean isCanceled();
 
+    /**
+     * Set the priority of this request among pending asynchronous requests, which can be changed
+     * until the request is started.
+     *
+     * @param priority One of {@link Priority}.
+     */
+    void setPriority(int priority);
+
     ApiRequest<T> clone();
 
     Request request();
 
+    interface Priority {
+        int LOW = -1;
+        int NORMAL = 0;
+        int HIGH = 1;
+    }
+
     interface Callback<T> {
         void onResponse(T response);
         void onErrorResponse(ApiError error);
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.network.api;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Limits the number of asynchronous API requests running at once, and starts pending ones by
+ * priority instead of first-in-first-out.
+ * <p>
+ * The limit is below the per-host limit of the OkHttp dispatcher, so that started requests never
+ * wait again in its queue where priorities no longer apply. Only short reads should be scheduled
+ * here, because a long-running request such as an upload would hold one of the few slots for its
+ * whole duration.
+ */
+class ApiRequestScheduler {
+
+    private static final int MAX_RUNNING_TASKS = 4;
+
+    private static final ApiRequestScheduler sInstance = new ApiRequestScheduler();
+
+    @NonNull
+    private final List<Task> mPendingTasks = new ArrayList<>();
+    private long mNextSequence;
+    private int mRunningTaskCount;
+
+    @NonNull
+    public static ApiRequestScheduler getInstance() {
+        return sInstance;
+    }
+
+    private ApiRequestScheduler() {}
+
+    public void enqueue(@NonNull Task task) {
+        synchronized (this) {
+            task.mSequence = mNextSequence++;
+            mPendingTasks.add(task);
+        }
+        runPendingTasks();
+    }
+
+    public void setPriority(@NonNull Task task, int priority) {
+        synchronized (this) {
+            task.mPriority = priority;
+        }
+    }
+
+    /**
+     * Run the task right away if it is still pending, e.g. so that a canceled request fails
+     * without waiting for its turn.
+     */
+    public void runNow(@NonNull Task task) {
+        synchronized (this) {
+            if (!mPendingTasks.remove(task)) {
+                return;
+            }
+            ++mRunningTaskCount;
+            task.mHoldsSlot = true;
+        }
+        task.run();
+    }
+
+    /**
+     * Cancel and run all pending tasks, so that their requests fail right away.
+     */
+    public void cancelAll() {
+        List<Task> tasks;
+        synchronized (this) {
+            tasks = new ArrayList<>(mPendingTasks);
+            mPendingTasks.clear();
+            for (Task task : tasks) {
+                ++mRunningTaskCount;
+                task.mHoldsSlot = true;
+            }
+        }
+        for (Task task : tasks) {
+            task.cancel();
+            task.run();
+        }
+    }
+
+    public void finish(@NonNull Task task) {
+        synchronized (this) {
+            if (!task.mHoldsSlot) {
+                return;
+            }
+            task.mHoldsSlot = false;
+            --mRunningTaskCount;
+        }
+        runPendingTasks();
+    }
+
+    private void runPendingTasks() {
+        List<Task> tasks = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Task> iterator = mPendingTasks.iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                if (!task.needsSlot()) {
+                    iterator.remove();
+                    tasks.add(task);
+                }
+            }
+            while (mRunningTaskCount < MAX_RUNNING_TASKS && !mPendingTasks.isEmpty()) {
+                Task task = removeNextPendingTask();
+                tasks.add(task);
+                ++mRunningTaskCount;
+                task.mHoldsSlot = true;
+            }
+        }
+        for (Task task : tasks) {
+            task.run();
+        }
+    }
+
+    @NonNull
+    private Task removeNextPendingTask() {
+        int nextIndex = 0;
+        Task nextTask = mPendingTasks.get(0);
+        for (int i = 1, size = mPendingTasks.size(); i < size; ++i) {
+            Task task = mPendingTasks.get(i);
+            if (task.mPriority > nextTask.mPriority || (task.mPriority == nextTask.mPriority
+                    && task.mSequence < nextTask.mSequence)) {
+                nextIndex = i;
+                nextTask = task;
+            }
+        }
+        mPendingTasks.remove(nextIndex);
+        return nextTask;
+    }
+
+    /**
+     * A task that must call {@link #finish(Task)} exactly once after it has run and completed.
+     */
+    public static abstract class Task implements Runnable {
+
+        private int mPriority;
+        private long mSequence;
+        private boolean mHoldsSlot;
+
+        public Task(int priority) {
+            mPriority = priority;
+        }
+
+        /**
+         * Called with the lock of the scheduler held, and should be cheap.
+         *
+         * @return Whether this task would use the network if run now, instead of e.g. waiting for
+         *         an identical call in flight.
+         */
+        public boolean needsSlot() {
+            return true;
+        }
+
+        public abstract void cancel();
+    }
+}
@@ -8,11 +8,15 @@ package me.zhanghai.android.douya.network.api;
 import android.content.Context;
 import android.net.Uri;
 import android.text.TextUtils;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.facebook.stetho.okhttp3.StethoInterceptor;
 
+import java.io.File;
 import java.util.List;
 
+import me.zhanghai.android.douya.DouyaApplication;
 import me.zhanghai.android.douya.account.info.AccountContract;
 import me.zhanghai.android.douya.network.GsonResponseBodyConverterFactory;
 import me.zhanghai.android.douya.network.Http;
@@ -49,9 +53,11 @@ import me.zhanghai.android.douya.util.CollectionUtils;
 import me.zhanghai.android.douya.util.StringCompat;
 import me.zhanghai.android.douya.util.StringUtils;
 import me.zhanghai.android.douya.util.UriUtils;
+import okhttp3.Cache;
 import okhttp3.Interceptor;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
 import okhttp3.RequestBody;
 import retrofit2.Retrofit;
 import retrofit2.http.DELETE;
@@ -68,13 +74,26 @@ import retrofit2.http.Url;
 
 public class ApiService {
 
+    // 10M
+    private static final long MAX_HTTP_CACHE_BYTES = 10 * 1024 * 1024;
+    private static final String HTTP_CACHE_DIRECTORY_NAME = "http";
+
+    // Douban recompresses uploaded images anyway, so there's no point uploading larger ones.
+    private static final int BROADCAST_IMAGE_MAX_EDGE = 2048;
+    private static final int BROADCAST_IMAGE_QUALITY = 85;
+
+    // Long enough to cover opening a user or an item right after it was fetched elsewhere.
+    private static final int USER_MEMOIZE_SECONDS = 30;
+    private static final int ITEM_MEMOIZE_SECONDS = 30;
+
     private static final ApiService sInstance = new ApiService();
 
+    private OkHttpClient mHttpClient;
+    // Shared so that a write through any client clears what all of them have memoized.
+    private CoalescingInterceptor mCoalescingInterceptor = new CoalescingInterceptor();
     private ApiV2AuthenticationService mApiV2AuthenticationService;
     private FrodoAuthenticationService mFrodoAuthenticationService;
-    private OkHttpClient mLifeStreamHttpClient;
     private LifeStreamService mLifeStreamService;
-    private OkHttpClient mFrodoHttpClient;
     private FrodoService mFrodoService;
 
     public static ApiService getInstance() {
@@ -82,50 +101,72 @@ public class ApiService {
     }
 
     private ApiService() {
+        // All clients are derived from this one so that they share the same cache, connection
+        // pool and dispatcher.
+        mHttpClient = new OkHttpClient.Builder()
+                .cache(new Cache(new File(DouyaApplication.getInstance().getCacheDir(),
+                        HTTP_CACHE_DIRECTORY_NAME), MAX_HTTP_CACHE_BYTES))
+                .build();
         mApiV2AuthenticationService = createAuthenticationService(
                 ApiContract.Request.Authentication.BaseUrls.API_V2,
-                ApiV2AuthenticationService.class);
+                ApiV2AuthenticationService.class, null, null);
         mFrodoAuthenticationService = createAuthenticationService(
                 ApiContract.Request.Authentication.BaseUrls.FRODO, FrodoAuthenticationService.class,
                 new FrodoInterceptor(), new FrodoSignatureInterceptor());
-        mLifeStreamHttpClient = createApiHttpClient(AccountContract.AUTH_TOKEN_TYPE_API_V2,
-                new LifeStreamInterceptor());
+        OkHttpClient lifeStreamHttpClient = createApiHttpClient(
+                AccountContract.AUTH_TOKEN_TYPE_API_V2, new LifeStreamInterceptor(), null);
         mLifeStreamService = createApiService(ApiContract.Request.ApiV2.BASE_URL,
-                mLifeStreamHttpClient, LifeStreamService.class);
-        mFrodoHttpClient = createApiHttpClient(AccountContract.AUTH_TOKEN_TYPE_FRODO,
+                lifeStreamHttpClient, LifeStreamService.class);
+        OkHttpClient frodoHttpClient = createApiHttpClient(AccountContract.AUTH_TOKEN_TYPE_FRODO,
                 new FrodoInterceptor(), new FrodoSignatureInterceptor());
-        mFrodoService = createApiService(ApiContract.Request.Frodo.BASE_URL, mFrodoHttpClient,
+        mFrodoService = createApiService(ApiContract.Request.Frodo.BASE_URL, frodoHttpClient,
                 FrodoService.class);
     }
 
-    private static OkHttpClient.Builder createHttpClientBuilder(
-            Interceptor... networkInterceptors) {
-        OkHttpClient.Builder builder = new OkHttpClient.Builder();
-        for (Interceptor interceptor : networkInterceptors) {
-            builder.addNetworkInterceptor(interceptor);
+    /*
+     * The cache looks up a request by its URL after application interceptors, and stores the
+     * response under the URL of the request it carries back. So fixed parameters are added by an
+     * application interceptor to be part of the key, while the per-request signature is added by a
+     * network interceptor that hands back the unsigned request.
+     */
+    private OkHttpClient.Builder addNetworkInterceptors(
+            OkHttpClient.Builder builder, @Nullable Interceptor signatureInterceptor) {
+        if (signatureInterceptor != null) {
+            builder.addNetworkInterceptor(signatureInterceptor);
         }
         return builder
+                .addNetworkInterceptor(new CachePolicyInterceptor())
                 .addNetworkInterceptor(new StethoInterceptor());
     }
 
-    private static <T> T createAuthenticationService(String baseUrl, Class<T> serviceClass,
-                                                     Interceptor... networkInterceptors) {
+    private <T> T createAuthenticationService(String baseUrl, Class<T> serviceClass,
+                                              @Nullable Interceptor interceptor,
+                                              @Nullable Interceptor signatureInterceptor) {
+        OkHttpClient.Builder builder = mHttpClient.newBuilder();
+        if (interceptor != null) {
+            builder.addInterceptor(interceptor);
+        }
         return new Retrofit.Builder()
                 .addCallAdapterFactory(ApiCallAdapter.Factory.create())
                 .addConverterFactory(GsonResponseBodyConverterFactory.create())
                 .baseUrl(baseUrl)
-                .client(createHttpClientBuilder(networkInterceptors).build())
+                .client(addNetworkInterceptors(builder, signatureInterceptor).build())
                 .build()
                 .create(serviceClass);
     }
 
-    private static OkHttpClient createApiHttpClient(String authTokenType,
-                                                    Interceptor... networkInterceptors) {
-        return createHttpClientBuilder(networkInterceptors)
+    private OkHttpClient createApiHttpClient(String authTokenType, Interceptor interceptor,
+                                             @Nullable Interceptor signatureInterceptor) {
+        OkHttpClient.Builder builder = mHttpClient.newBuilder()
                 // AuthenticationInterceptor may retry the request, so it must be an application
                 // interceptor.
                 .addInterceptor(new ApiAuthenticationInterceptor(authTokenType))
-                .build();
+                // After authentication so that coalesced requests have the same authorization.
+                .addInterceptor(mCoalescingInterceptor)
+                // After coalescing so that its keys match the requests seen by
+                // isCallInFlight(Request).
+                .addInterceptor(interceptor);
+        return addNetworkInterceptors(builder, signatureInterceptor).build();
     }
 
     private static <T> T createApiService(String baseUrl, OkHttpClient client,
@@ -260,10 +301,21 @@ public class ApiService {
     }
 
     public ApiRequest<UploadedImage> uploadBroadcastImage(Uri uri, Context context) {
+        return uploadBroadcastImage(uri, null, context);
+    }
+
+    public ApiRequest<UploadedImage> uploadBroadcastImage(
+            Uri uri, ProgressRequestBody.Listener progressListener, Context context) {
         String fileName = UriUtils.getDisplayName(uri, context);
-        RequestBody body = new ImageTypeUriRequestBody(uri, context);
+        CompressedImageUriRequestBody compressedBody = new CompressedImageUriRequestBody(uri,
+                BROADCAST_IMAGE_MAX_EDGE, BROADCAST_IMAGE_QUALITY, context);
+        RequestBody body = compressedBody;
+        if (progressListener != null) {
+            body = new ProgressRequestBody(body, progressListener);
+        }
         MultipartBody.Part part = MultipartBody.Part.createFormData("image", fileName, body);
-        return mFrodoService.uploadBroadcastImage(part);
+        return new ReleaseBodyApiRequest<>(mFrodoService.uploadBroadcastImage(part),
+                compressedBody);
     }
 
     public ApiRequest<Broadcast> sendBroadcast(String text, List<String> imageUrls,
@@ -427,8 +479,16 @@ public class ApiService {
     }
 
     public void cancelApiRequests() {
-        mLifeStreamHttpClient.dispatcher().cancelAll();
-        mFrodoHttpClient.dispatcher().cancelAll();
+        ApiRequestScheduler.getInstance().cancelAll();
+        // The dispatcher is shared by all our clients.
+        mHttpClient.dispatcher().cancelAll();
+    }
+
+    /**
+     * @see CoalescingInterceptor#isInFlight(Request)
+     */
+    boolean isCallInFlight(Request request) {
+        return mCoalescingInterceptor.isInFlight(request);
     }
 
     public interface ApiV2AuthenticationService {
@@ -475,6 +535,7 @@ public class ApiService {
     public interface LifeStreamService {
 
         @GET("lifestream/user/{userIdOrUid}")
+        @CachePolicy(memoizeSeconds = USER_MEMOIZE_SECONDS)
         ApiRequest<User> getUser(@Path("userIdOrUid") String userIdOrUid);
 
         @POST("lifestream/user/{userIdOrUid}/follow")
@@ -603,6 +664,7 @@ public class ApiService {
                                     @Field("rec_url") String linkUrl);
 
         @GET("status/{broadcastId}")
+        @CachePolicy
         ApiRequest<Broadcast> getBroadcast(@Path("broadcastId") long broadcastId);
 
         @GET("status/{broadcastId}/likers")
@@ -660,6 +722,7 @@ public class ApiService {
                                            @Query("count") Integer count);
 
         @GET("user/{userIdOrUid}/itemlist")
+        @CachePolicy
         ApiRequest<UserItemList> getUserItemList(@Path("userIdOrUid") String userIdOrUid);
 
         @GET("user/{userIdOrUid}/reviews")
@@ -668,6 +731,7 @@ public class ApiService {
                                                  @Query("count") Integer count);
 
         @GET("{itemType}/{itemId}")
+        @CachePolicy(memoizeSeconds = ITEM_MEMOIZE_SECONDS)
         ApiRequest<CompleteCollectableItem> getItem(@Path("itemType") String itemType,
                                                     @Path("itemId") long itemId);
 
@@ -689,26 +753,31 @@ public class ApiService {
                                                  @Path("itemId") long itemId);
 
         @GET("{itemType}/{itemId}/rating")
+        @CachePolicy(maxAgeSeconds = 5 * 60)
         ApiRequest<Rating> getItemRating(@Path("itemType") String itemType,
                                          @Path("itemId") long itemId);
 
         @GET("{itemType}/{itemId}/photos")
+        @CachePolicy(maxAgeSeconds = 60 * 60)
         ApiRequest<PhotoList> getItemPhotoList(@Path("itemType") String itemType,
                                                @Path("itemId") long itemId,
                                                @Query("start") Integer start,
                                                @Query("count") Integer count);
 
         @GET("{itemType}/{itemId}/celebrities")
+        @CachePolicy(maxAgeSeconds = 24 * 60 * 60)
         ApiRequest<CelebrityList> getItemCelebrityList(@Path("itemType") String itemType,
                                                        @Path("itemId") long itemId);
 
         @GET("{itemType}/{itemId}/awards")
+        @CachePolicy(maxAgeSeconds = 24 * 60 * 60)
         ApiRequest<ItemAwardList> getItemAwardList(@Path("itemType") String itemType,
                                                    @Path("itemId") long itemId,
                                                    @Query("start") Integer start,
                                                    @Query("count") Integer count);
 
         @GET("{itemType}/{itemId}/interests")
+        @CachePolicy
         ApiRequest<ItemCollectionList> getItemCollectionList(
                 @Path("itemType") String itemType, @Path("itemId") long itemId,
                 @Query("following") Integer followingsFirst, @Query("start") Integer start,
@@ -721,6 +790,7 @@ public class ApiService {
                                                       @Field("interest_id") long itemCollectionId);
 
         @GET("{itemType}/{itemId}/forum_topics")
+        @CachePolicy
         ApiRequest<ItemForumTopicList> getItemForumTopicList(@Path("itemType") String itemType,
                                                              @Path("itemId") long itemId,
                                                              @Query("episode") Integer episode,
@@ -728,6 +798,7 @@ public class ApiService {
                                                              @Query("count") Integer count);
 
         @GET("{itemType}/{itemId}/reviews")
+        @CachePolicy
         ApiRequest<ReviewList> getItemReviewList(@Path("itemType") String itemType,
                                                  @Path("itemId") long itemId,
                                                  @Query("rtype") String reviewType,
@@ -735,11 +806,13 @@ public class ApiService {
                                                  @Query("count") Integer count);
 
         @GET("{itemType}/{itemId}/recommendations")
+        @CachePolicy(maxAgeSeconds = 60 * 60)
         ApiRequest<List<CollectableItem>> getItemRecommendationList(
                 @Path("itemType") String itemType, @Path("itemId") long itemId,
                 @Query("count") Integer count);
 
         @GET("{itemType}/{itemId}/related_doulists")
+        @CachePolicy(maxAgeSeconds = 60 * 60)
         ApiRequest<DoulistList> getItemRelatedDoulistList(@Path("itemType") String itemType,
                                                           @Path("itemId") long itemId,
                                                           @Query("start") Integer start,
@@ -770,4 +843,58 @@ public class ApiService {
             return broadcast;
         }
     }
+
+    /**
+     * Releases a compressed image body when the request completes or is canceled, because it may
+     * have been compressed for {@code contentLength()} without ever being written.
+     */
+    private static class ReleaseBodyApiRequest<T> extends ConvertApiRequest<T, T> {
+
+        @NonNull
+        private final CompressedImageUriRequestBody mBody;
+
+        public ReleaseBodyApiRequest(@NonNull ApiRequest<T> request,
+                                     @NonNull CompressedImageUriRequestBody body) {
+            super(request);
+
+            mBody = body;
+        }
+
+        @Override
+        public T execute() throws ApiError {
+            try {
+                return super.execute();
+            } finally {
+                mBody.release();
+            }
+        }
+
+        @Override
+        public void enqueue(@NonNull Callback<T> callback) {
+            super.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(T response) {
+                    mBody.release();
+                    callback.onResponse(response);
+                }
+                @Override
+                public void onErrorResponse(ApiError error) {
+                    mBody.release();
+                    callback.onErrorResponse(error);
+                }
+            });
+        }
+
+        @Override
+        public void cancel() {
+            super.cancel();
+
+            mBody.release();
+        }
+
+        @Override
+        protected T transform(T responseBody) {
+            return responseBody;
+        }
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.network.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the HTTP cache policy of responses to a GET endpoint in a Retrofit service interface.
+ * <p>
+ * Responses are stored in the shared HTTP cache and revalidated with a conditional request
+ * (If-None-Match/If-Modified-Since) once they are older than {@link #maxAgeSeconds()}. Endpoints
+ * without this annotation follow whatever the server says.
+ *
+ * @see CachePolicyInterceptor
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachePolicy {
+
+    /**
+     * Seconds during which a cached response can be served without contacting the server, or
+     * {@code 0} to always revalidate.
+     */
+    int maxAgeSeconds() default 0;
+
+    /**
+     * Seconds during which a successful response can be served from memory to repeat reads, or
+     * {@code 0} to never do so. Any non-GET request clears these responses.
+     *
+     * @see CoalescingInterceptor
+     */
+    int memoizeSeconds() default 0;
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.network.api;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import me.zhanghai.android.douya.network.Http;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * Rewrites the caching headers of responses according to the {@link CachePolicy} on the invoked
+ * service method. Must be a network interceptor so that the rewritten headers are what gets stored
+ * in the cache.
+ */
+public class CachePolicyInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        if (!request.method().equals(Http.Methods.GET) || !response.isSuccessful()
+                || response.cacheControl().noStore()) {
+            return response;
+        }
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null) {
+            return response;
+        }
+        CachePolicy cachePolicy = invocation.method().getAnnotation(CachePolicy.class);
+        if (cachePolicy == null) {
+            return response;
+        }
+        int maxAgeSeconds = cachePolicy.maxAgeSeconds();
+        String cacheControl = maxAgeSeconds > 0 ? "private, max-age=" + maxAgeSeconds
+                : "private, no-cache";
+        return response.newBuilder()
+                .header(Http.Headers.CACHE_CONTROL, cacheControl)
+                .removeHeader(Http.Headers.PRAGMA)
+                // Responses are per account, and OkHttp keys its cache only by URL.
+                .header(Http.Headers.VARY, Http.Headers.AUTHORIZATION)
+                .build();
+    }
+}
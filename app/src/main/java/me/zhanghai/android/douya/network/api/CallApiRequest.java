@@ -21,6 +21,9 @@ public class CallApiRequest<T> implements ApiRequest<T> {
 
     private Call<T> mCall;
 
+    private int mPriority = Priority.NORMAL;
+    private ApiRequestScheduler.Task mScheduledCall;
+
     public CallApiRequest(Call<T> call) {
         mCall = call;
     }
@@ -40,9 +43,34 @@ public class CallApiRequest<T> implements ApiRequest<T> {
     }
 
     public void enqueue(@NonNull final Callback<T> callback) {
+        if (mCall.request().body() != null) {
+            // Writes and uploads may take long and are started by the user, so they shouldn't wait
+            // for or hold up reads.
+            enqueueCall(callback);
+            return;
+        }
+        mScheduledCall = new ApiRequestScheduler.Task(mPriority) {
+            @Override
+            public void run() {
+                enqueueCall(callback);
+            }
+            @Override
+            public boolean needsSlot() {
+                return !ApiService.getInstance().isCallInFlight(mCall.request());
+            }
+            @Override
+            public void cancel() {
+                mCall.cancel();
+            }
+        };
+        ApiRequestScheduler.getInstance().enqueue(mScheduledCall);
+    }
+
+    private void enqueueCall(@NonNull final Callback<T> callback) {
         mCall.enqueue(new retrofit2.Callback<T>() {
             @Override
             public void onResponse(@NonNull Call<T> call, @NonNull final Response<T> response) {
+                finishScheduledCall();
                 if (response.isSuccessful()) {
                     sMainThreadHandler.post(new Runnable() {
                         @Override
@@ -61,6 +89,7 @@ public class CallApiRequest<T> implements ApiRequest<T> {
             }
             @Override
             public void onFailure(@NonNull Call<T> call, @NonNull final Throwable t) {
+                finishScheduledCall();
                 sMainThreadHandler.post(new Runnable() {
                     @Override
                     public void run() {
@@ -71,18 +100,35 @@ public class CallApiRequest<T> implements ApiRequest<T> {
         });
     }
 
+    private void finishScheduledCall() {
+        if (mScheduledCall != null) {
+            ApiRequestScheduler.getInstance().finish(mScheduledCall);
+        }
+    }
+
     public boolean isExecuted() {
-        return mCall.isExecuted();
+        return mScheduledCall != null || mCall.isExecuted();
     }
 
     public void cancel() {
         mCall.cancel();
+        if (mScheduledCall != null) {
+            // Fail right away instead of waiting for our turn.
+            ApiRequestScheduler.getInstance().runNow(mScheduledCall);
+        }
     }
 
     public boolean isCanceled() {
         return mCall.isCanceled();
     }
 
+    public void setPriority(int priority) {
+        mPriority = priority;
+        if (mScheduledCall != null) {
+            ApiRequestScheduler.getInstance().setPriority(mScheduledCall, priority);
+        }
+    }
+
     @Override
     public CallApiRequest<T> clone() {
         CallApiRequest<T> clone;
@@ -94,6 +140,7 @@ public class CallApiRequest<T> implements ApiRequest<T> {
             throw new RuntimeException(e);
         }
         clone.mCall = mCall.clone();
+        clone.mScheduledCall = null;
         return clone;
     }
 
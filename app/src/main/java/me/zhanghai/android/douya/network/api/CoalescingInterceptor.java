@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.network.api;
+
+import android.os.SystemClock;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import me.zhanghai.android.douya.network.Http;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import retrofit2.Invocation;
+
+/**
+ * Shares a single network call among concurrent identical GET requests, and optionally serves
+ * repeat reads from memory for {@link CachePolicy#memoizeSeconds()}.
+ * <p>
+ * Requests are keyed by method, URL and authorization, and every caller gets its own copy of the
+ * buffered response, so that each of them still parses its own instances. A response is only
+ * buffered if it is to be memoized or another caller has joined by the time it arrives, and is
+ * otherwise streamed through as usual. Any other request clears the memo because it may have
+ * changed what the server would return. Must be an application interceptor added after
+ * authentication so that the key has the final authorization and a response is shared at most once
+ * per call.
+ */
+public class CoalescingInterceptor implements Interceptor {
+
+    private static final int MAX_MEMO_SIZE = 32;
+
+    private static final long CANCELLATION_CHECK_INTERVAL_MILLIS = 100;
+
+    @NonNull
+    private final Map<String, InFlightCall> mInFlightCalls = new HashMap<>();
+
+    @NonNull
+    private final LruCache<String, MemoizedResponse> mMemo = new LruCache<>(MAX_MEMO_SIZE);
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!request.method().equals(Http.Methods.GET)) {
+            mMemo.evictAll();
+            try {
+                return chain.proceed(request);
+            } finally {
+                // A read that started before this request finished may have memoized stale data.
+                mMemo.evictAll();
+            }
+        }
+
+        String key = makeKey(request);
+        long memoizeMillis = getMemoizeMillis(request);
+        if (memoizeMillis > 0) {
+            MemoizedResponse memoizedResponse = mMemo.get(key);
+            if (memoizedResponse != null) {
+                if (memoizedResponse.isFresh()) {
+                    return memoizedResponse.mResponse.newResponse(request);
+                }
+                mMemo.remove(key);
+            }
+        }
+
+        InFlightCall inFlightCall;
+        boolean isLeader;
+        synchronized (mInFlightCalls) {
+            inFlightCall = mInFlightCalls.get(key);
+            isLeader = inFlightCall == null;
+            if (isLeader) {
+                inFlightCall = new InFlightCall();
+                mInFlightCalls.put(key, inFlightCall);
+            } else {
+                inFlightCall.mHasFollowers = true;
+            }
+        }
+        if (!isLeader) {
+            BufferedResponse response = inFlightCall.await(chain);
+            if (response == null) {
+                // The shared call failed, possibly because its caller canceled it, so try again on
+                // our own.
+                return chain.proceed(request);
+            }
+            return response.newResponse(request);
+        }
+
+        Response networkResponse;
+        try {
+            networkResponse = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            completeInFlightCall(key, inFlightCall, null);
+            throw e;
+        }
+        if (memoizeMillis == 0) {
+            boolean hasFollowers;
+            synchronized (mInFlightCalls) {
+                hasFollowers = inFlightCall.mHasFollowers;
+                if (!hasFollowers) {
+                    // Later callers will make their own call instead.
+                    mInFlightCalls.remove(key);
+                }
+            }
+            if (!hasFollowers) {
+                inFlightCall.complete(null);
+                return networkResponse;
+            }
+        }
+        BufferedResponse response = null;
+        try {
+            response = BufferedResponse.read(networkResponse);
+        } finally {
+            completeInFlightCall(key, inFlightCall, response);
+        }
+        if (memoizeMillis > 0 && response.mResponse.isSuccessful()) {
+            mMemo.put(key, new MemoizedResponse(response, memoizeMillis));
+        }
+        return response.newResponse(request);
+    }
+
+    private void completeInFlightCall(@NonNull String key, @NonNull InFlightCall inFlightCall,
+                                      @Nullable BufferedResponse response) {
+        synchronized (mInFlightCalls) {
+            mInFlightCalls.remove(key);
+        }
+        inFlightCall.complete(response);
+    }
+
+    /**
+     * @return Whether a GET request would join an identical call in flight, regardless of the
+     *         authorization that is yet to be added to it.
+     */
+    public boolean isInFlight(@NonNull Request request) {
+        if (!request.method().equals(Http.Methods.GET)) {
+            return false;
+        }
+        String keyPrefix = makeKeyPrefix(request);
+        synchronized (mInFlightCalls) {
+            for (String key : mInFlightCalls.keySet()) {
+                if (key.startsWith(keyPrefix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @NonNull
+    private static String makeKey(@NonNull Request request) {
+        String authorization = request.header(Http.Headers.AUTHORIZATION);
+        return makeKeyPrefix(request) + (authorization != null ? authorization : "");
+    }
+
+    @NonNull
+    private static String makeKeyPrefix(@NonNull Request request) {
+        return request.method() + ' ' + request.url() + ' ';
+    }
+
+    private static long getMemoizeMillis(@NonNull Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null) {
+            return 0;
+        }
+        CachePolicy cachePolicy = invocation.method().getAnnotation(CachePolicy.class);
+        if (cachePolicy == null) {
+            return 0;
+        }
+        return TimeUnit.SECONDS.toMillis(cachePolicy.memoizeSeconds());
+    }
+
+    private static class InFlightCall {
+
+        @NonNull
+        private final CountDownLatch mLatch = new CountDownLatch(1);
+
+        @Nullable
+        private volatile BufferedResponse mResponse;
+
+        // Guarded by the lock of the in-flight calls.
+        public boolean mHasFollowers;
+
+        public void complete(@Nullable BufferedResponse response) {
+            mResponse = response;
+            mLatch.countDown();
+        }
+
+        @Nullable
+        public BufferedResponse await(@NonNull Chain chain) throws IOException {
+            try {
+                while (!mLatch.await(CANCELLATION_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (chain.call().isCanceled()) {
+                        throw new IOException("Canceled");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+            return mResponse;
+        }
+    }
+
+    /**
+     * A response with its body read into memory so that it can be handed out more than once.
+     */
+    private static class BufferedResponse {
+
+        @NonNull
+        private final Response mResponse;
+        @Nullable
+        private final MediaType mContentType;
+        @NonNull
+        private final byte[] mBody;
+
+        private BufferedResponse(@NonNull Response response, @Nullable MediaType contentType,
+                                 @NonNull byte[] body) {
+            mResponse = response;
+            mContentType = contentType;
+            mBody = body;
+        }
+
+        @NonNull
+        public static BufferedResponse read(@NonNull Response response) throws IOException {
+            try (ResponseBody body = response.body()) {
+                if (body == null) {
+                    return new BufferedResponse(response, null, new byte[0]);
+                }
+                return new BufferedResponse(response.newBuilder().body(null).build(),
+                        body.contentType(), body.bytes());
+            }
+        }
+
+        @NonNull
+        public Response newResponse(@NonNull Request request) {
+            return mResponse.newBuilder()
+                    .request(request)
+                    .body(ResponseBody.create(mContentType, mBody))
+                    .build();
+        }
+    }
+
+    private static class MemoizedResponse {
+
+        @NonNull
+        public final BufferedResponse mResponse;
+
+        private final long mExpirationTime;
+
+        public MemoizedResponse(@NonNull BufferedResponse response, long memoizeMillis) {
+            mResponse = response;
+            mExpirationTime = SystemClock.elapsedRealtime() + memoizeMillis;
+        }
+
+        public boolean isFresh() {
+            return SystemClock.elapsedRealtime() < mExpirationTime;
+        }
+    }
+}
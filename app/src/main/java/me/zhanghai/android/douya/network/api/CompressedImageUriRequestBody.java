@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.network.api;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.net.Uri;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.exifinterface.media.ExifInterface;
+import android.text.TextUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import me.zhanghai.android.douya.util.FileTypeUtils;
+import me.zhanghai.android.douya.util.LogUtils;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * A {@link RequestBody} for an image {@link Uri} that downscales and re-encodes the image to JPEG
+ * before uploading, which also strips all EXIF metadata except orientation. GIFs are uploaded
+ * untouched, and any other image that fails to be compressed fails the upload instead of leaking
+ * its metadata.
+ * <p>
+ * Compression happens lazily upon the first call on the thread sending the request, one image at a
+ * time across the process to bound memory usage. The result is written to a temporary file, which
+ * is deleted once the body has been written or {@link #release()} is called, and a retry
+ * compresses the image again.
+ */
+public class CompressedImageUriRequestBody extends RequestBody {
+
+    private static final String CACHE_DIRECTORY_NAME = "upload";
+    private static final long STALE_FILE_AGE_MILLIS = 24 * 60 * 60 * 1000;
+
+    private static final MediaType MEDIA_TYPE_JPEG = MediaType.get("image/jpeg");
+
+    private static final Object sCompressLock = new Object();
+
+    @NonNull
+    private final Uri mUri;
+    @NonNull
+    private final ContentResolver mContentResolver;
+    @NonNull
+    private final File mCacheDirectory;
+    private final int mMaxEdge;
+    private final int mQuality;
+
+    // Guarded by this object.
+    @Nullable
+    private RequestBody mRequestBody;
+    @Nullable
+    private File mFile;
+    @Nullable
+    private IOException mException;
+    private int mReleaseCount;
+
+    public CompressedImageUriRequestBody(@NonNull Uri uri, int maxEdge, int quality,
+                                         @NonNull Context context) {
+        mUri = uri;
+        mContentResolver = context.getContentResolver();
+        mCacheDirectory = new File(context.getCacheDir(), CACHE_DIRECTORY_NAME);
+        mMaxEdge = maxEdge;
+        mQuality = quality;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        try {
+            return getRequestBody().contentType();
+        } catch (IOException e) {
+            // Thrown again from contentLength() or writeTo(), which can fail the request.
+            return null;
+        }
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return getRequestBody().contentLength();
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        try {
+            getRequestBody().writeTo(sink);
+        } finally {
+            release();
+        }
+    }
+
+    @NonNull
+    private RequestBody getRequestBody() throws IOException {
+        int releaseCount;
+        synchronized (this) {
+            if (mRequestBody != null) {
+                return mRequestBody;
+            }
+            if (mException != null) {
+                throw mException;
+            }
+            releaseCount = mReleaseCount;
+        }
+        // Not holding our lock while compressing, so that release() never waits for it.
+        RequestBody requestBody = null;
+        File file = null;
+        IOException exception = null;
+        try {
+            synchronized (sCompressLock) {
+                if (TextUtils.equals(getMimeType(), "image/gif")) {
+                    // Possibly animated.
+                    requestBody = new ImageTypeUriRequestBody(mUri, mContentResolver);
+                } else {
+                    file = compress();
+                    requestBody = RequestBody.create(MEDIA_TYPE_JPEG, file);
+                }
+            }
+        } catch (IOException e) {
+            exception = e;
+        } catch (Exception | OutOfMemoryError e) {
+            exception = new IOException("Failed to compress image: " + mUri, e);
+        }
+        synchronized (this) {
+            if (mReleaseCount != releaseCount) {
+                if (file != null) {
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                }
+                throw new IOException("Released while compressing image: " + mUri);
+            }
+            if (exception != null) {
+                LogUtils.w("Failed to compress image: " + mUri);
+                exception.printStackTrace();
+                mException = exception;
+                throw exception;
+            }
+            mRequestBody = requestBody;
+            mFile = file;
+            return requestBody;
+        }
+    }
+
+    /**
+     * Delete the compressed image if any. Should be called if the request failed or was canceled
+     * before this body could be written.
+     */
+    public synchronized void release() {
+        ++mReleaseCount;
+        mRequestBody = null;
+        mException = null;
+        if (mFile != null) {
+            //noinspection ResultOfMethodCallIgnored
+            mFile.delete();
+            mFile = null;
+        }
+    }
+
+    @Nullable
+    private String getMimeType() throws IOException {
+        try (InputStream inputStream = openInputStream()) {
+            return FileTypeUtils.getImageMimeType(inputStream);
+        }
+    }
+
+    @NonNull
+    private File compress() throws IOException {
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream inputStream = openInputStream()) {
+            BitmapFactory.decodeStream(inputStream, null, options);
+        }
+        int width = options.outWidth;
+        int height = options.outHeight;
+        if (width <= 0 || height <= 0) {
+            throw new IOException("Failed to decode image bounds: " + mUri);
+        }
+
+        int orientation = ExifInterface.ORIENTATION_UNDEFINED;
+        if (TextUtils.equals(options.outMimeType, "image/jpeg")) {
+            try (InputStream inputStream = openInputStream()) {
+                orientation = new ExifInterface(inputStream).getAttributeInt(
+                        ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_UNDEFINED);
+            }
+        }
+
+        // Decode straight to the target size, by sampling down to no smaller than it and then
+        // letting the decoder scale by density, so that no full-size bitmap is kept around.
+        int maxEdge = Math.max(width, height);
+        int sampleSize = 1;
+        while (maxEdge / (sampleSize * 2) >= mMaxEdge) {
+            sampleSize *= 2;
+        }
+        options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        if (maxEdge > mMaxEdge * sampleSize) {
+            options.inScaled = true;
+            options.inDensity = maxEdge;
+            options.inTargetDensity = mMaxEdge * sampleSize;
+        }
+        options.inMutable = true;
+        Bitmap bitmap;
+        try (InputStream inputStream = openInputStream()) {
+            bitmap = BitmapFactory.decodeStream(inputStream, null, options);
+        }
+        if (bitmap == null) {
+            throw new IOException("Failed to decode image: " + mUri);
+        }
+        if (bitmap.hasAlpha()) {
+            // JPEG has no alpha, so draw transparent pixels on white instead of black.
+            new Canvas(bitmap).drawColor(Color.WHITE, PorterDuff.Mode.DST_OVER);
+        }
+
+        deleteStaleFiles();
+        //noinspection ResultOfMethodCallIgnored
+        mCacheDirectory.mkdirs();
+        File file = File.createTempFile("image", ".jpg", mCacheDirectory);
+        boolean compressed;
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            compressed = bitmap.compress(Bitmap.CompressFormat.JPEG, mQuality, outputStream);
+        } finally {
+            bitmap.recycle();
+        }
+        if (!compressed) {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            throw new IOException("Failed to compress image: " + mUri);
+        }
+        if (orientation != ExifInterface.ORIENTATION_UNDEFINED
+                && orientation != ExifInterface.ORIENTATION_NORMAL) {
+            try {
+                ExifInterface exifInterface = new ExifInterface(file.getPath());
+                exifInterface.setAttribute(ExifInterface.TAG_ORIENTATION, String.valueOf(
+                        orientation));
+                exifInterface.saveAttributes();
+            } catch (IOException e) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+                throw e;
+            }
+        }
+
+        // Uploaded even if it didn't get smaller, because the original has all its metadata.
+        return file;
+    }
+
+    @NonNull
+    private InputStream openInputStream() throws IOException {
+        InputStream inputStream = mContentResolver.openInputStream(mUri);
+        if (inputStream == null) {
+            throw new IOException("Failed to open input stream for Uri: " + mUri);
+        }
+        return inputStream;
+    }
+
+    /**
+     * Delete files left behind by a process that died while uploading.
+     */
+    private void deleteStaleFiles() {
+        File[] files = mCacheDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        long staleTime = System.currentTimeMillis() - STALE_FILE_AGE_MILLIS;
+        for (File file : files) {
+            if (file.lastModified() < staleTime) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+    }
+}
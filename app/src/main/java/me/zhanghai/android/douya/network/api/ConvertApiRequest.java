@@ -53,6 +53,11 @@ public abstract class ConvertApiRequest<S, T> implements ApiRequest<T> {
         return mRequest.isCanceled();
     }
 
+    @Override
+    public void setPriority(int priority) {
+        mRequest.setPriority(priority);
+    }
+
     @Override
     public ConvertApiRequest<S, T> clone() {
         ConvertApiRequest<S, T> clone;
@@ -47,8 +47,12 @@ public class FrodoSignatureInterceptor implements Interceptor {
         Map<String, String> parameters = new HashMap<>();
         parameters.put(ApiContract.Request.Frodo.SIG, signature);
         parameters.put(ApiContract.Request.Frodo.TS, timestamp);
-        request = InterceptorUtils.addParameters(request, parameters);
-        return chain.proceed(request);
+        Request signedRequest = InterceptorUtils.addParameters(request, parameters);
+        // Hand back the unsigned request so that the response is cached under the URL it is looked
+        // up by, instead of one with a new timestamp every second.
+        return chain.proceed(signedRequest).newBuilder()
+                .request(request)
+                .build();
     }
 
     private String makeTimestamp() {
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.network.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+import okio.Sink;
+
+/**
+ * A {@link RequestBody} that reports the number of bytes written of the wrapped body.
+ */
+public class ProgressRequestBody extends RequestBody {
+
+    @NonNull
+    private final RequestBody mRequestBody;
+
+    @NonNull
+    private final Listener mListener;
+
+    public ProgressRequestBody(@NonNull RequestBody requestBody, @NonNull Listener listener) {
+        mRequestBody = requestBody;
+        mListener = listener;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return mRequestBody.contentType();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return mRequestBody.contentLength();
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        long contentLength = contentLength();
+        // The body can be written more than once, e.g. upon retry, so progress restarts here.
+        mListener.onProgress(0, contentLength);
+        BufferedSink progressSink = Okio.buffer(new ProgressSink(sink, contentLength));
+        mRequestBody.writeTo(progressSink);
+        progressSink.flush();
+    }
+
+    public interface Listener {
+
+        /**
+         * Called on the thread writing the request body.
+         *
+         * @param contentLength The length of the body, or -1 if unknown.
+         */
+        void onProgress(long bytesWritten, long contentLength);
+    }
+
+    private class ProgressSink extends ForwardingSink {
+
+        private final long mContentLength;
+
+        private long mBytesWritten;
+
+        public ProgressSink(@NonNull Sink delegate, long contentLength) {
+            super(delegate);
+
+            mContentLength = contentLength;
+        }
+
+        @Override
+        public void write(@NonNull Buffer source, long byteCount) throws IOException {
+            super.write(source, byteCount);
+
+            mBytesWritten += byteCount;
+            mListener.onProgress(mBytesWritten, mContentLength);
+        }
+    }
+}
@@ -33,6 +33,10 @@ public abstract class BaseItem implements UrlGettable, Parcelable {
 
     public String title;
 
+    // Name of the field read by TimelineList.TypeAdapterFactory.
+    static final String NAME_TYPE = "type";
+
+    @SerializedName(NAME_TYPE)
     public String type;
 
     public String uri;
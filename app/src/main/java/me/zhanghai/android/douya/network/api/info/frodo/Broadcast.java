@@ -17,10 +17,6 @@ import android.text.Spanned;
 import android.text.TextUtils;
 import android.text.style.ForegroundColorSpan;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParseException;
 import com.google.gson.annotations.SerializedName;
 
 import java.util.ArrayList;
@@ -32,7 +28,7 @@ import me.zhanghai.android.douya.ui.IconSpan;
 import me.zhanghai.android.douya.ui.SpaceSpan;
 import me.zhanghai.android.douya.ui.UriSpan;
 import me.zhanghai.android.douya.util.DoubanUtils;
-import me.zhanghai.android.douya.util.GsonHelper;
+import me.zhanghai.android.douya.util.PostProcessingTypeAdapterFactory;
 import me.zhanghai.android.douya.util.ViewUtils;
 
 public class Broadcast implements ClipboardCopyable, UrlGettable, Parcelable {
@@ -297,16 +293,43 @@ public class Broadcast implements ClipboardCopyable, UrlGettable, Parcelable {
         if (TextUtils.isEmpty(action)) {
             action = "说";
         } else {
-            action = action
-                    .replaceFirst("^转发", "转播")
-                    .replaceFirst("^转播日记$", "推荐日记")
-                    .replaceFirst("^分享", "推荐")
-                    .replaceFirst("^推荐链接$", "推荐网页")
-                    .replaceFirst("^(想.|在.|.过)这.+", "$1")
-                    .replaceFirst("^写了日记$", "写了新日记");
+            // Actions come from a small set, so intern them to share a single instance across
+            // broadcasts.
+            action = normalizeAction(action).intern();
         }
     }
 
+    // Equivalent to applying the following replacements in order, without compiling patterns or
+    // allocating for actions that need no change:
+    // ^转发 -> 转播
+    // ^转播日记$ -> 推荐日记
+    // ^分享 -> 推荐
+    // ^推荐链接$ -> 推荐网页
+    // ^(想.|在.|.过)这.+ -> $1
+    // ^写了日记$ -> 写了新日记
+    private static String normalizeAction(String action) {
+        if (action.startsWith("转发")) {
+            action = "转播" + action.substring(2);
+        }
+        if (action.equals("转播日记")) {
+            action = "推荐日记";
+        }
+        if (action.startsWith("分享")) {
+            action = "推荐" + action.substring(2);
+        }
+        if (action.equals("推荐链接")) {
+            action = "推荐网页";
+        }
+        if (action.length() > 3 && action.charAt(2) == '这' && (action.charAt(0) == '想'
+                || action.charAt(0) == '在' || action.charAt(1) == '过')) {
+            action = action.substring(0, 2);
+        }
+        if (action.equals("写了日记")) {
+            action = "写了新日记";
+        }
+        return action;
+    }
+
     private void fixSelf() {
         fixAction();
     }
@@ -331,14 +354,15 @@ public class Broadcast implements ClipboardCopyable, UrlGettable, Parcelable {
     }
 
 
-    public static class Deserializer implements JsonDeserializer<Broadcast> {
+    public static class TypeAdapterFactory extends PostProcessingTypeAdapterFactory<Broadcast> {
+
+        public TypeAdapterFactory() {
+            super(Broadcast.class);
+        }
 
         @Override
-        public Broadcast deserialize(JsonElement json, java.lang.reflect.Type typeOfT,
-                                     JsonDeserializationContext context) throws JsonParseException {
-            Broadcast broadcast = GsonHelper.GSON.fromJson(json, typeOfT);
+        protected void postProcess(Broadcast broadcast) {
             broadcast.fix();
-            return broadcast;
         }
     }
 
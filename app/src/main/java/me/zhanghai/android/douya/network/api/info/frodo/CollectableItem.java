@@ -10,11 +10,14 @@ import android.graphics.Color;
 import android.os.Parcel;
 import android.text.TextUtils;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 import org.threeten.bp.LocalDate;
 import org.threeten.bp.Year;
@@ -22,6 +25,7 @@ import org.threeten.bp.YearMonth;
 import org.threeten.bp.format.DateTimeFormatter;
 import org.threeten.bp.format.DateTimeParseException;
 
+import java.io.IOException;
 import java.util.List;
 
 import me.zhanghai.android.douya.R;
@@ -228,39 +232,79 @@ public abstract class CollectableItem extends BaseItem {
         return getYearMonth(CollectionUtils.firstOrNull(releaseDates), context);
     }
 
-    public static class Deserializer implements JsonDeserializer<CollectableItem> {
+    /**
+     * Dispatches on the {@code "type"} property. Because the property can appear anywhere in the
+     * object, the object is buffered as a tree once and then bound directly by the adapter for the
+     * concrete class.
+     */
+    public static class TypeAdapterFactory implements com.google.gson.TypeAdapterFactory {
+
+        private final Class<?> mClass;
+
+        public TypeAdapterFactory() {
+            this(CollectableItem.class);
+        }
+
+        protected TypeAdapterFactory(Class<?> clazz) {
+            mClass = clazz;
+        }
 
         @Override
-        public CollectableItem deserialize(JsonElement json, java.lang.reflect.Type typeOfT,
-                                           JsonDeserializationContext context)
-                throws JsonParseException {
-            java.lang.reflect.Type type = null;
-            Type itemType = Type.ofApiString(json.getAsJsonObject().get("type").getAsString());
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+
+            if (typeToken.getRawType() != mClass) {
+                return null;
+            }
+
+            TypeAdapter<JsonElement> jsonElementAdapter = gson.getAdapter(JsonElement.class);
+            TypeAdapter<T> delegate = gson.getDelegateAdapter(this, typeToken);
+            return new TypeAdapter<T>() {
+
+                @Override
+                public void write(JsonWriter out, T value) throws IOException {
+                    delegate.write(out, value);
+                }
+
+                @Override
+                public T read(JsonReader in) throws IOException {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        return null;
+                    }
+                    JsonElement json = jsonElementAdapter.read(in);
+                    Type itemType = null;
+                    if (json.isJsonObject()) {
+                        JsonElement typeJson = json.getAsJsonObject().get("type");
+                        if (typeJson != null && typeJson.isJsonPrimitive()) {
+                            itemType = Type.ofApiString(typeJson.getAsString());
+                        }
+                    }
+                    Class<? extends CollectableItem> itemClass = getItemClass(itemType);
+                    //noinspection unchecked
+                    return (T) gson.getAdapter(itemClass).fromJsonTree(json);
+                }
+            };
+        }
+
+        protected Class<? extends CollectableItem> getItemClass(Type itemType) {
             if (itemType != null) {
                 switch (itemType) {
 //                    case APP:
 //                        break;
                     case BOOK:
-                        type = SimpleBook.class;
-                        break;
+                        return SimpleBook.class;
 //                    case EVENT:
 //                        break;
                     case GAME:
-                        type = SimpleGame.class;
-                        break;
+                        return SimpleGame.class;
                     case MOVIE:
                     case TV:
-                        type = SimpleMovie.class;
-                        break;
+                        return SimpleMovie.class;
                     case MUSIC:
-                        type = SimpleMusic.class;
-                        break;
+                        return SimpleMusic.class;
                 }
             }
-            if (type == null) {
-                type = UnknownCollectableItem.class;
-            }
-            return context.deserialize(json, type);
+            return UnknownCollectableItem.class;
         }
     }
 
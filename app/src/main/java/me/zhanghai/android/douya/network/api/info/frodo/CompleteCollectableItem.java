@@ -5,11 +5,6 @@
 
 package me.zhanghai.android.douya.network.api.info.frodo;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParseException;
-
 /**
  * Only for use with Gson deserialization.
  */
@@ -17,39 +12,32 @@ public class CompleteCollectableItem {
 
     private CompleteCollectableItem() {}
 
-    public static class Deserializer implements JsonDeserializer<CollectableItem> {
+    public static class TypeAdapterFactory extends CollectableItem.TypeAdapterFactory {
+
+        public TypeAdapterFactory() {
+            super(CompleteCollectableItem.class);
+        }
 
         @Override
-        public CollectableItem deserialize(JsonElement json, java.lang.reflect.Type typeOfT,
-                                           JsonDeserializationContext context)
-                throws JsonParseException {
-            java.lang.reflect.Type type = null;
-            CollectableItem.Type itemType = CollectableItem.Type.ofApiString(
-                    json.getAsJsonObject().get("type").getAsString());
+        protected Class<? extends CollectableItem> getItemClass(CollectableItem.Type itemType) {
             if (itemType != null) {
                 switch (itemType) {
 //                    case APP:
 //                        break;
                     case BOOK:
-                        type = Book.class;
-                        break;
+                        return Book.class;
 //                    case EVENT:
 //                        break;
                     case GAME:
-                        type = Game.class;
-                        break;
+                        return Game.class;
                     case MOVIE:
                     case TV:
-                        type = Movie.class;
-                        break;
+                        return Movie.class;
                     case MUSIC:
-                        type = Music.class;
+                        return Music.class;
                 }
             }
-            if (type == null) {
-                type = UnknownCollectableItem.class;
-            }
-            return context.deserialize(json, type);
+            return UnknownCollectableItem.class;
         }
     }
 }
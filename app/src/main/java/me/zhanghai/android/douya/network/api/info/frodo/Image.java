@@ -7,10 +7,12 @@ package me.zhanghai.android.douya.network.api.info.frodo;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.text.TextUtils;
 
 import com.google.gson.annotations.SerializedName;
 
 import me.zhanghai.android.douya.ui.ImageItem;
+import me.zhanghai.android.douya.util.InterningTypeAdapterFactory;
 
 public class Image implements ImageItem, Parcelable {
 
@@ -84,4 +86,28 @@ public class Image implements ImageItem, Parcelable {
         //noinspection deprecation
         dest.writeString(medium);
     }
+
+
+    /**
+     * Shares a single instance among equal images read anywhere, keyed by URL.
+     */
+    public static class TypeAdapterFactory extends InterningTypeAdapterFactory<Image> {
+
+        public TypeAdapterFactory() {
+            super(Image.class);
+        }
+
+        @Override
+        protected Object getKey(Image image) {
+            return image.getLargeUrl();
+        }
+
+        @Override
+        protected boolean areEqual(Image image1, Image image2) {
+            //noinspection deprecation
+            return image1.isAnimated == image2.isAnimated
+                    && TextUtils.equals(image1.large, image2.large)
+                    && TextUtils.equals(image1.medium, image2.medium);
+        }
+    }
 }
@@ -8,13 +8,9 @@ package me.zhanghai.android.douya.network.api.info.frodo;
 import android.os.Parcel;
 import android.os.Parcelable;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParseException;
 import com.google.gson.annotations.SerializedName;
 
-import me.zhanghai.android.douya.util.GsonHelper;
+import me.zhanghai.android.douya.util.PostProcessingTypeAdapterFactory;
 
 public class Notification implements Parcelable {
 
@@ -49,14 +45,16 @@ public class Notification implements Parcelable {
     }
 
 
-    public static class Deserializer implements JsonDeserializer<Notification> {
+    public static class TypeAdapterFactory
+            extends PostProcessingTypeAdapterFactory<Notification> {
+
+        public TypeAdapterFactory() {
+            super(Notification.class);
+        }
 
         @Override
-        public Notification deserialize(JsonElement json, java.lang.reflect.Type typeOfT,
-                                     JsonDeserializationContext context) throws JsonParseException {
-            Notification notification = GsonHelper.GSON.fromJson(json, typeOfT);
+        protected void postProcess(Notification notification) {
             notification.fix();
-            return notification;
         }
     }
 
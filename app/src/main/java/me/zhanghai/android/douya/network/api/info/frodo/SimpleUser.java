@@ -13,6 +13,7 @@ import com.google.gson.annotations.SerializedName;
 
 import me.zhanghai.android.douya.account.util.AccountUtils;
 import me.zhanghai.android.douya.network.api.info.UrlGettable;
+import me.zhanghai.android.douya.util.InterningTypeAdapterFactory;
 
 // FIXME: Frodo API change.
 public class SimpleUser implements UrlGettable, Parcelable {
@@ -111,4 +112,43 @@ public class SimpleUser implements UrlGettable, Parcelable {
         dest.writeString(uri);
         dest.writeString(url);
     }
+
+
+    /**
+     * Shares a single instance among equal users read anywhere, keyed by ID.
+     */
+    public static class TypeAdapterFactory extends InterningTypeAdapterFactory<SimpleUser> {
+
+        public TypeAdapterFactory() {
+            super(SimpleUser.class);
+        }
+
+        @Override
+        protected Object getKey(SimpleUser user) {
+            // Placeholder users without an ID are not the same user.
+            return user.id != 0 ? user.id : null;
+        }
+
+        @Override
+        protected boolean areEqual(SimpleUser user1, SimpleUser user2) {
+            //noinspection deprecation
+            return TextUtils.equals(user1.avatar, user2.avatar)
+                    && user1.id == user2.id
+                    && TextUtils.equals(user1.type, user2.type)
+                    && areLocationsEqual(user1.location, user2.location)
+                    && TextUtils.equals(user1.name, user2.name)
+                    && TextUtils.equals(user1.uid, user2.uid)
+                    && TextUtils.equals(user1.uri, user2.uri)
+                    && TextUtils.equals(user1.url, user2.url);
+        }
+
+        private static boolean areLocationsEqual(Location location1, Location location2) {
+            if (location1 == null || location2 == null) {
+                return location1 == location2;
+            }
+            return TextUtils.equals(location1.id, location2.id)
+                    && TextUtils.equals(location1.name, location2.name)
+                    && TextUtils.equals(location1.uid, location2.uid);
+        }
+    }
 }
@@ -7,10 +7,12 @@ package me.zhanghai.android.douya.network.api.info.frodo;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.text.TextUtils;
 
 import com.google.gson.annotations.SerializedName;
 
 import me.zhanghai.android.douya.ui.SizedImageItem;
+import me.zhanghai.android.douya.util.InterningTypeAdapterFactory;
 
 public class SizedImage implements SizedImageItem, Parcelable {
 
@@ -195,4 +197,39 @@ public class SizedImage implements SizedImageItem, Parcelable {
             dest.writeInt(width);
         }
     }
+
+
+    /**
+     * Shares a single instance among equal images read anywhere, keyed by URL.
+     */
+    public static class TypeAdapterFactory extends InterningTypeAdapterFactory<SizedImage> {
+
+        public TypeAdapterFactory() {
+            super(SizedImage.class);
+        }
+
+        @Override
+        protected Object getKey(SizedImage image) {
+            Item item = image.getLarge();
+            return item != null ? item.url : null;
+        }
+
+        @Override
+        protected boolean areEqual(SizedImage image1, SizedImage image2) {
+            //noinspection deprecation
+            return image1.isAnimated == image2.isAnimated
+                    && areItemsEqual(image1.large, image2.large)
+                    && areItemsEqual(image1.medium, image2.medium)
+                    && areItemsEqual(image1.raw, image2.raw)
+                    && areItemsEqual(image1.small, image2.small);
+        }
+
+        private static boolean areItemsEqual(Item item1, Item item2) {
+            if (item1 == null || item2 == null) {
+                return item1 == item2;
+            }
+            return item1.height == item2.height && TextUtils.equals(item1.url, item2.url)
+                    && item1.width == item2.width;
+        }
+    }
 }
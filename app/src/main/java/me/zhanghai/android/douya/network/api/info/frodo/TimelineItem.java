@@ -63,6 +63,20 @@ public class TimelineItem extends BaseItem {
         }
     }
 
+    // Names of the fields read by TimelineList.TypeAdapterFactory.
+    static final String NAME_ACTION = "action";
+    static final String NAME_COMMENT_COUNT = "comments_count";
+    static final String NAME_CONTENT = "content";
+    static final String NAME_CREATE_TIME = "created_time";
+    static final String NAME_OWNER = "owner";
+    static final String NAME_OWNER_ALTERNATIVE_LABEL = "owner_alter_label";
+    static final String NAME_REACTION_TYPE = "reaction_type";
+    static final String NAME_REACTION_COUNT = "reactions_count";
+    static final String NAME_REBROADCASTER = "resharer";
+    static final String NAME_REBROADCAST_COUNT = "reshares_count";
+    static final String NAME_ID = "uid";
+
+    @SerializedName(NAME_ACTION)
     public String action;
 
     //@SerializedName("ad_info")
@@ -70,12 +84,13 @@ public class TimelineItem extends BaseItem {
 
     public ArrayList<Comment> comments = new ArrayList<>();
 
-    @SerializedName("comments_count")
+    @SerializedName(NAME_COMMENT_COUNT)
     public int commentCount;
 
+    @SerializedName(NAME_CONTENT)
     public Content content;
 
-    @SerializedName("created_time")
+    @SerializedName(NAME_CREATE_TIME)
     public String createTime;
 
     @SerializedName("creationCount")
@@ -109,25 +124,26 @@ public class TimelineItem extends BaseItem {
 
     public NotificationList notifications;
 
+    @SerializedName(NAME_OWNER)
     public Owner owner;
 
-    @SerializedName("owner_alter_label")
+    @SerializedName(NAME_OWNER_ALTERNATIVE_LABEL)
     public OwnerAlternativeLabel ownerAlternaitveLabel;
 
-    @SerializedName("reaction_type")
+    @SerializedName(NAME_REACTION_TYPE)
     public int reactionType;
 
-    @SerializedName("reactions_count")
+    @SerializedName(NAME_REACTION_COUNT)
     public int reactionCount;
 
     // com.douban.frodo.model.common.RecInfo
     //@SerializedName("rec_info")
     //public RecommendationInfo recommendationInfo;
 
-    @SerializedName("resharer")
+    @SerializedName(NAME_REBROADCASTER)
     public SimpleUser rebroadcaster;
 
-    @SerializedName("reshares_count")
+    @SerializedName(NAME_REBROADCAST_COUNT)
     public int rebroadcastCount;
 
     @SerializedName("show_actions")
@@ -139,7 +155,7 @@ public class TimelineItem extends BaseItem {
     // com.douban.frodo.model.common.StatusGalleryTopic
     //public BroadcastTopic topic;
 
-    @SerializedName("uid")
+    @SerializedName(NAME_ID)
     public long id;
 
 
@@ -148,7 +164,15 @@ public class TimelineItem extends BaseItem {
         if (content == null || content.type == null) {
             return null;
         }
-        Broadcast contentBroadcast = contentToBroadcast();
+        return toBroadcast(contentToBroadcast(), rebroadcaster, createTime, id);
+    }
+
+    /**
+     * Makes the broadcast of an item from the broadcast of its content, which is wrapped in a
+     * rebroadcast if the item has a rebroadcaster.
+     */
+    static Broadcast toBroadcast(Broadcast contentBroadcast, SimpleUser rebroadcaster,
+                                 String createTime, long id) {
         if (rebroadcaster == null) {
             return contentBroadcast;
         }
@@ -273,6 +297,8 @@ public class TimelineItem extends BaseItem {
 
     public static class Content extends BaseItem {
 
+        static final String NAME_BROADCAST = "status";
+
         @SerializedName("alter_author_string")
         public String alternativeAuthor;
 
@@ -288,7 +314,7 @@ public class TimelineItem extends BaseItem {
         @SerializedName("photos_count")
         public int photoCount;
 
-        @SerializedName("status")
+        @SerializedName(NAME_BROADCAST)
         public Broadcast broadcast;
 
         public String text;
@@ -8,8 +8,17 @@ package me.zhanghai.android.douya.network.api.info.frodo;
 import android.os.Parcel;
 import android.os.Parcelable;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,22 +31,42 @@ import me.zhanghai.android.douya.util.CollectionUtils;
  */
 public class TimelineList implements Parcelable {
 
+    // Names of the fields read by TypeAdapterFactory.
+    private static final String NAME_COUNT = "count";
+    private static final String NAME_HOT_ITEMS = "hot_items";
+    private static final String NAME_ITEMS = "items";
+    private static final String NAME_NEW_ITEM_COUNT = "new_item_count";
+    private static final String NAME_TOAST = "toast";
+    private static final String NAME_TOP_ITEMS = "top_items";
+
+    @SerializedName(NAME_COUNT)
     public int count;
 
-    @SerializedName("hot_items")
+    @SerializedName(NAME_HOT_ITEMS)
     public ArrayList<TimelineItem> hotItems = new ArrayList<>();
 
+    @SerializedName(NAME_ITEMS)
     public ArrayList<TimelineItem> items = new ArrayList<>();
 
-    @SerializedName("new_item_count")
+    @SerializedName(NAME_NEW_ITEM_COUNT)
     public int newItemCount;
 
+    @SerializedName(NAME_TOAST)
     public String toast;
 
-    @SerializedName("top_items")
+    @SerializedName(NAME_TOP_ITEMS)
     public ArrayList<TimelineItem> topItems = new ArrayList<>();
 
+    /**
+     * Broadcasts of all items, set instead of the item lists when read with
+     * {@link TypeAdapterFactory}.
+     */
+    public transient ArrayList<Broadcast> broadcasts;
+
     public ArrayList<Broadcast> toBroadcastList() {
+        if (broadcasts != null) {
+            return broadcasts;
+        }
         List<TimelineItem> allItems = CollectionUtils.join(topItems, CollectionUtils.join(
                 hotItems, items));
         return Functional.filter(Functional.map(allItems, TimelineItem::toBroadcast),
@@ -66,6 +95,7 @@ public class TimelineList implements Parcelable {
         newItemCount = in.readInt();
         toast = in.readString();
         in.readList(topItems, TimelineItem.class.getClassLoader());
+        broadcasts = in.createTypedArrayList(Broadcast.CREATOR);
     }
 
     @Override
@@ -81,5 +111,242 @@ public class TimelineList implements Parcelable {
         dest.writeInt(newItemCount);
         dest.writeString(toast);
         dest.writeList(topItems);
+        dest.writeTypedList(broadcasts);
+    }
+
+    /**
+     * Reads the items of a timeline directly into {@link #broadcasts}, so that neither the item
+     * lists nor their joined copies are ever built.
+     * <p>
+     * The broadcast of a status item is decoded straight from the stream into its final instance,
+     * and only the few other fields of the item that the mapping needs are kept aside until the end
+     * of the item, because their order isn't guaranteed. Items of other content types are rare and
+     * still go through {@link TimelineItem#toBroadcast()}.
+     */
+    public static class TypeAdapterFactory implements com.google.gson.TypeAdapterFactory {
+
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+
+            if (typeToken.getRawType() != TimelineList.class) {
+                return null;
+            }
+
+            TypeAdapter<T> delegate = gson.getDelegateAdapter(this, typeToken);
+            TypeAdapter<Broadcast> broadcastAdapter = gson.getAdapter(Broadcast.class);
+            TypeAdapter<TimelineItem.Content> contentAdapter = gson.getAdapter(
+                    TimelineItem.Content.class);
+            TypeAdapter<TimelineItem.Owner> ownerAdapter = gson.getAdapter(
+                    TimelineItem.Owner.class);
+            TypeAdapter<TimelineItem.OwnerAlternativeLabel> ownerAlternativeLabelAdapter =
+                    gson.getAdapter(TimelineItem.OwnerAlternativeLabel.class);
+            TypeAdapter<SimpleUser> userAdapter = gson.getAdapter(SimpleUser.class);
+            TypeAdapter<JsonElement> jsonElementAdapter = gson.getAdapter(JsonElement.class);
+            TypeAdapter<Integer> intAdapter = gson.getAdapter(int.class);
+            TypeAdapter<Long> longAdapter = gson.getAdapter(long.class);
+            TypeAdapter<String> stringAdapter = gson.getAdapter(String.class);
+            return new TypeAdapter<T>() {
+
+                @Override
+                public void write(JsonWriter out, T value) throws IOException {
+                    delegate.write(out, value);
+                }
+
+                @Override
+                public T read(JsonReader in) throws IOException {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        return null;
+                    }
+                    TimelineList timelineList = new TimelineList();
+                    ArrayList<Broadcast> topBroadcasts = null;
+                    ArrayList<Broadcast> hotBroadcasts = null;
+                    ArrayList<Broadcast> broadcasts = null;
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        switch (in.nextName()) {
+                            case NAME_COUNT:
+                                timelineList.count = readInt(in);
+                                break;
+                            case NAME_HOT_ITEMS:
+                                hotBroadcasts = readBroadcasts(in);
+                                break;
+                            case NAME_ITEMS:
+                                broadcasts = readBroadcasts(in);
+                                break;
+                            case NAME_NEW_ITEM_COUNT:
+                                timelineList.newItemCount = readInt(in);
+                                break;
+                            case NAME_TOAST:
+                                timelineList.toast = stringAdapter.read(in);
+                                break;
+                            case NAME_TOP_ITEMS:
+                                topBroadcasts = readBroadcasts(in);
+                                break;
+                            default:
+                                in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    timelineList.broadcasts = join(topBroadcasts, hotBroadcasts, broadcasts);
+                    //noinspection unchecked
+                    return (T) timelineList;
+                }
+
+                private int readInt(JsonReader in) throws IOException {
+                    Integer value = intAdapter.read(in);
+                    return value != null ? value : 0;
+                }
+
+                private long readLong(JsonReader in) throws IOException {
+                    Long value = longAdapter.read(in);
+                    return value != null ? value : 0;
+                }
+
+                private ArrayList<Broadcast> readBroadcasts(JsonReader in) throws IOException {
+                    ArrayList<Broadcast> broadcasts = new ArrayList<>();
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        return broadcasts;
+                    }
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        Broadcast broadcast = readBroadcast(in);
+                        if (broadcast != null) {
+                            broadcasts.add(broadcast);
+                        }
+                    }
+                    in.endArray();
+                    return broadcasts;
+                }
+
+                /**
+                 * @see TimelineItem#toBroadcast()
+                 */
+                private Broadcast readBroadcast(JsonReader in) throws IOException {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        return null;
+                    }
+                    String action = null;
+                    int commentCount = 0;
+                    boolean hasContent = false;
+                    Broadcast contentBroadcast = null;
+                    // Other fields of the content, only decoded if it isn't a status.
+                    JsonObject contentJson = null;
+                    String createTime = null;
+                    TimelineItem.Owner owner = null;
+                    TimelineItem.OwnerAlternativeLabel ownerAlternativeLabel = null;
+                    int reactionType = 0;
+                    int reactionCount = 0;
+                    SimpleUser rebroadcaster = null;
+                    int rebroadcastCount = 0;
+                    long id = 0;
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        switch (in.nextName()) {
+                            case TimelineItem.NAME_ACTION:
+                                action = stringAdapter.read(in);
+                                break;
+                            case TimelineItem.NAME_COMMENT_COUNT:
+                                commentCount = readInt(in);
+                                break;
+                            case TimelineItem.NAME_CONTENT:
+                                if (in.peek() == JsonToken.NULL) {
+                                    in.nextNull();
+                                    break;
+                                }
+                                hasContent = true;
+                                contentJson = new JsonObject();
+                                in.beginObject();
+                                while (in.hasNext()) {
+                                    String name = in.nextName();
+                                    if (name.equals(TimelineItem.Content.NAME_BROADCAST)) {
+                                        contentBroadcast = broadcastAdapter.read(in);
+                                    } else {
+                                        contentJson.add(name, jsonElementAdapter.read(in));
+                                    }
+                                }
+                                in.endObject();
+                                break;
+                            case TimelineItem.NAME_CREATE_TIME:
+                                createTime = stringAdapter.read(in);
+                                break;
+                            case TimelineItem.NAME_OWNER:
+                                owner = ownerAdapter.read(in);
+                                break;
+                            case TimelineItem.NAME_OWNER_ALTERNATIVE_LABEL:
+                                ownerAlternativeLabel = ownerAlternativeLabelAdapter.read(in);
+                                break;
+                            case TimelineItem.NAME_REACTION_TYPE:
+                                reactionType = readInt(in);
+                                break;
+                            case TimelineItem.NAME_REACTION_COUNT:
+                                reactionCount = readInt(in);
+                                break;
+                            case TimelineItem.NAME_REBROADCASTER:
+                                rebroadcaster = userAdapter.read(in);
+                                break;
+                            case TimelineItem.NAME_REBROADCAST_COUNT:
+                                rebroadcastCount = readInt(in);
+                                break;
+                            case TimelineItem.NAME_ID:
+                                id = readLong(in);
+                                break;
+                            default:
+                                in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    if (!hasContent) {
+                        return null;
+                    }
+                    // Type is null when content is empty.
+                    JsonElement typeJson = contentJson.get(BaseItem.NAME_TYPE);
+                    if (typeJson == null || typeJson.isJsonNull()) {
+                        return null;
+                    }
+                    if (contentBroadcast != null) {
+                        return TimelineItem.toBroadcast(contentBroadcast, rebroadcaster,
+                                createTime, id);
+                    }
+                    TimelineItem item = new TimelineItem();
+                    item.action = action;
+                    item.commentCount = commentCount;
+                    item.content = contentAdapter.fromJsonTree(contentJson);
+                    item.createTime = createTime;
+                    item.owner = owner;
+                    item.ownerAlternaitveLabel = ownerAlternativeLabel;
+                    item.reactionType = reactionType;
+                    item.reactionCount = reactionCount;
+                    item.rebroadcaster = rebroadcaster;
+                    item.rebroadcastCount = rebroadcastCount;
+                    item.id = id;
+                    return item.toBroadcast();
+                }
+            };
+        }
+
+        private static ArrayList<Broadcast> join(ArrayList<Broadcast> topBroadcasts,
+                                                 ArrayList<Broadcast> hotBroadcasts,
+                                                 ArrayList<Broadcast> broadcasts) {
+            int size = CollectionUtils.size(topBroadcasts) + CollectionUtils.size(hotBroadcasts)
+                    + CollectionUtils.size(broadcasts);
+            if (size == CollectionUtils.size(broadcasts)) {
+                // Usually the case when loading more.
+                return broadcasts != null ? broadcasts : new ArrayList<>();
+            }
+            ArrayList<Broadcast> allBroadcasts = new ArrayList<>(size);
+            if (topBroadcasts != null) {
+                allBroadcasts.addAll(topBroadcasts);
+            }
+            if (hotBroadcasts != null) {
+                allBroadcasts.addAll(hotBroadcasts);
+            }
+            if (broadcasts != null) {
+                allBroadcasts.addAll(broadcasts);
+            }
+            return allBroadcasts;
+        }
     }
 }
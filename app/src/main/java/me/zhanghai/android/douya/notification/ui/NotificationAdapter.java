@@ -7,6 +7,10 @@ package me.zhanghai.android.douya.notification.ui;
 
 import android.content.Context;
 import android.content.res.ColorStateList;
+import android.text.TextUtils;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import android.view.View;
 import android.view.ViewGroup;
@@ -27,6 +31,8 @@ import me.zhanghai.android.douya.util.ViewUtils;
 public class NotificationAdapter extends SimpleAdapter<Notification,
         NotificationAdapter.ViewHolder> {
 
+    private static final Object PAYLOAD_READ = new Object();
+
     private final ColorStateList mTextColorPrimary;
     private final ColorStateList mTextColorSecondary;
 
@@ -41,6 +47,7 @@ public class NotificationAdapter extends SimpleAdapter<Notification,
                 android.R.attr.textColorSecondary, context);
 
         setHasStableIds(true);
+        setDiffItemCallback(new DiffItemCallback());
     }
 
     public void setListener(Listener listener) {
@@ -59,8 +66,23 @@ public class NotificationAdapter extends SimpleAdapter<Notification,
 
     @Override
     public void onBindViewHolder(final ViewHolder holder, int position) {
-        final Context context = RecyclerViewUtils.getContext(holder);
         final Notification notification = getItem(position);
+        bindRead(holder, notification);
+        holder.textText.setText(notification.text);
+        holder.timeText.setDoubanTime(notification.time);
+    }
+
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position, List<Object> payloads) {
+        if (!hasOnlyPayload(payloads, PAYLOAD_READ)) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        bindRead(holder, getItem(position));
+    }
+
+    private void bindRead(ViewHolder holder, Notification notification) {
+        final Context context = RecyclerViewUtils.getContext(holder);
         holder.itemView.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View view) {
@@ -70,9 +92,36 @@ public class NotificationAdapter extends SimpleAdapter<Notification,
                 UriHandler.open(notification.targetUri, context);
             }
         });
-        holder.textText.setText(notification.text);
         holder.textText.setTextColor(notification.read ? mTextColorSecondary : mTextColorPrimary);
-        holder.timeText.setDoubanTime(notification.time);
+    }
+
+    private static class DiffItemCallback extends DiffUtil.ItemCallback<Notification> {
+
+        @Override
+        public boolean areItemsTheSame(@NonNull Notification oldItem,
+                                       @NonNull Notification newItem) {
+            return oldItem.id == newItem.id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Notification oldItem,
+                                          @NonNull Notification newItem) {
+            return oldItem.read == newItem.read && areTextsTheSame(oldItem, newItem);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull Notification oldItem,
+                                       @NonNull Notification newItem) {
+            return areTextsTheSame(oldItem, newItem) ? PAYLOAD_READ : null;
+        }
+
+        private static boolean areTextsTheSame(@NonNull Notification oldNotification,
+                                               @NonNull Notification newNotification) {
+            return TextUtils.equals(oldNotification.text, newNotification.text)
+                    && TextUtils.equals(oldNotification.time, newNotification.time)
+                    && TextUtils.equals(oldNotification.targetUri, newNotification.targetUri);
+        }
     }
 
     public interface Listener {
@@ -31,7 +31,7 @@ import me.zhanghai.android.douya.network.api.info.frodo.Notification;
 import me.zhanghai.android.douya.notification.content.NotificationListResource;
 import me.zhanghai.android.douya.ui.LoadMoreAdapter;
 import me.zhanghai.android.douya.ui.NoChangeAnimationItemAnimator;
-import me.zhanghai.android.douya.ui.OnVerticalScrollListener;
+import me.zhanghai.android.douya.ui.OnScrolledNearBottomListener;
 import me.zhanghai.android.douya.util.LogUtils;
 import me.zhanghai.android.douya.util.ToastUtils;
 import me.zhanghai.android.douya.util.ViewUtils;
@@ -91,9 +91,9 @@ public class NotificationListFragment extends Fragment implements NotificationLi
         mNotificationAdapter.setListener(this);
         mAdapter = new LoadMoreAdapter(mNotificationAdapter);
         mNotificationList.setAdapter(mAdapter);
-        mNotificationList.addOnScrollListener(new OnVerticalScrollListener() {
+        mNotificationList.addOnScrollListener(new OnScrolledNearBottomListener() {
             @Override
-            public void onScrolledToBottom() {
+            public void onScrolledNearBottom() {
                 mNotificationListResource.load(true);
             }
         });
@@ -15,9 +15,14 @@ import android.widget.ImageView;
 import android.widget.Space;
 import android.widget.TextView;
 
+import java.util.Collections;
+
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import me.zhanghai.android.douya.R;
+import me.zhanghai.android.douya.glide.GlideApp;
+import me.zhanghai.android.douya.glide.GlideRequests;
+import me.zhanghai.android.douya.glide.RecyclerViewPreloader;
 import me.zhanghai.android.douya.item.ui.ItemActivities;
 import me.zhanghai.android.douya.link.UriHandler;
 import me.zhanghai.android.douya.network.api.info.frodo.CollectableItem;
@@ -31,6 +36,8 @@ import me.zhanghai.android.douya.util.ViewUtils;
 public class ProfileItemAdapter
         extends SimpleAdapter<CollectableItem, ProfileItemAdapter.ViewHolder> {
 
+    private static final int MAX_PRELOAD_ITEM_COUNT = 4;
+
     public ProfileItemAdapter() {
         setHasStableIds(true);
     }
@@ -50,16 +57,7 @@ public class ProfileItemAdapter
     @Override
     public void onBindViewHolder(final ViewHolder holder, int position) {
         final CollectableItem item = getItem(position);
-        float ratio = 1;
-        switch (item.getType()) {
-            case BOOK:
-            case EVENT:
-            case MOVIE:
-            case TV:
-                ratio = 2f / 3f;
-                break;
-        }
-        holder.itemLayout.setRatio(ratio);
+        holder.itemLayout.setRatio(getRatio(item));
         final Context context = RecyclerViewUtils.getContext(holder);
         holder.itemLayout.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -79,6 +77,39 @@ public class ProfileItemAdapter
         ViewUtils.setVisibleOrGone(holder.dividerSpace, position != getItemCount() - 1);
     }
 
+    private static float getRatio(CollectableItem item) {
+        switch (item.getType()) {
+            case BOOK:
+            case EVENT:
+            case MOVIE:
+            case TV:
+                return 2f / 3f;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Preload covers ahead of horizontal scrolling, for a list with this adapter set.
+     */
+    public static void setUpPreloader(RecyclerView recyclerView) {
+        GlideRequests requests = GlideApp.with(recyclerView.getContext());
+        recyclerView.addOnScrollListener(new RecyclerViewPreloader(requests, position -> {
+            ProfileItemAdapter adapter = (ProfileItemAdapter) recyclerView.getAdapter();
+            int height = recyclerView.getHeight() - recyclerView.getPaddingTop()
+                    - recyclerView.getPaddingBottom();
+            if (position >= adapter.getItemCount() || height <= 0) {
+                return Collections.emptyList();
+            }
+            CollectableItem item = adapter.getItem(position);
+            // Same as RatioFrameLayout.onMeasure() with the attributes in profile_item_item.xml.
+            int width = Math.round(getRatio(item) * height);
+            return Collections.singletonList(new RecyclerViewPreloader.Request(
+                    ImageUtils.makeImageRequest(requests, item.cover.getLargeUrl()), width,
+                    height));
+        }, MAX_PRELOAD_ITEM_COUNT));
+    }
+
     static class ViewHolder extends RecyclerView.ViewHolder {
 
         @BindView(R.id.item)
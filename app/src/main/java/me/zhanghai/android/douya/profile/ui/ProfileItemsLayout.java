@@ -71,6 +71,7 @@ public abstract class ProfileItemsLayout extends FriendlyCardView {
                 LinearLayoutManager.HORIZONTAL, false));
         mItemAdapter = new ProfileItemAdapter();
         mItemList.setAdapter(mItemAdapter);
+        ProfileItemAdapter.setUpPreloader(mItemList);
     }
 
     protected void bind(UserItems primaryItems, UserItems secondaryItems, UserItems tertiaryItems) {
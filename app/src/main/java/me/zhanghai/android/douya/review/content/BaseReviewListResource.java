@@ -8,6 +8,7 @@ package me.zhanghai.android.douya.review.content;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -42,9 +43,11 @@ public abstract class BaseReviewListResource
                 getListener().onReviewListChanged(getRequestCode(),
                         Collections.unmodifiableList(get()));
             }
+            List<ReviewUpdatedEvent> events = new ArrayList<>(response.size());
             for (SimpleReview review : response) {
-                EventBusUtils.postAsync(new ReviewUpdatedEvent(review, this));
+                events.add(new ReviewUpdatedEvent(review, this));
             }
+            EventBusUtils.postAsyncBatch(events);
         } else {
             getListener().onLoadReviewListFinished(getRequestCode());
             getListener().onLoadReviewListError(getRequestCode(), error);
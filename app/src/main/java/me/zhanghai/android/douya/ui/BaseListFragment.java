@@ -87,9 +87,9 @@ public abstract class BaseListFragment<T> extends Fragment {
     abstract protected SimpleAdapter<T, ?> onCreateAdapter();
 
     protected void onAttachScrollListener() {
-        mList.addOnScrollListener(new OnVerticalScrollListener() {
+        mList.addOnScrollListener(new OnScrolledNearBottomListener() {
             @Override
-            public void onScrolledToBottom() {
+            public void onScrolledNearBottom() {
                 mResource.load(true);
             }
         });
@@ -151,11 +151,11 @@ public abstract class BaseListFragment<T> extends Fragment {
     protected void onListUpdated(List<T> list) {}
 
     protected void onItemWriteFinished(int position) {
-        mItemAdapter.notifyItemChanged(position);
+        mItemAdapter.notifyListItemChanged(position);
     }
 
     protected void onItemWriteStarted(int position) {
-        mItemAdapter.notifyItemChanged(position);
+        mItemAdapter.notifyListItemChanged(position);
     }
 
     private void updateRefreshing() {
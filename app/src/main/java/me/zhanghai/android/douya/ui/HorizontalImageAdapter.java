@@ -5,18 +5,27 @@
 
 package me.zhanghai.android.douya.ui;
 
+import android.content.Context;
 import androidx.recyclerview.widget.RecyclerView;
 import android.view.View;
 import android.view.ViewGroup;
 
+import java.util.Collections;
+
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import me.zhanghai.android.douya.R;
+import me.zhanghai.android.douya.glide.GlideApp;
+import me.zhanghai.android.douya.glide.GlideRequests;
+import me.zhanghai.android.douya.glide.RecyclerViewPreloader;
+import me.zhanghai.android.douya.util.ImageUtils;
 import me.zhanghai.android.douya.util.ViewUtils;
 
 public class HorizontalImageAdapter
         extends ClickableSimpleAdapter<SizedImageItem, HorizontalImageAdapter.ViewHolder> {
 
+    private static final int MAX_PRELOAD_ITEM_COUNT = 4;
+
     public HorizontalImageAdapter() {
         setHasStableIds(true);
     }
@@ -37,6 +46,41 @@ public class HorizontalImageAdapter
         holder.imageLayout.loadImage(getItem(position));
     }
 
+    /**
+     * Preload images ahead of horizontal scrolling, for a list with this adapter set.
+     */
+    public static void setUpPreloader(RecyclerView recyclerView) {
+        Context context = recyclerView.getContext();
+        GlideRequests requests = GlideApp.with(context);
+        recyclerView.addOnScrollListener(new RecyclerViewPreloader(requests, position -> {
+            HorizontalImageAdapter adapter = (HorizontalImageAdapter) recyclerView.getAdapter();
+            if (position >= adapter.getItemCount()) {
+                return Collections.emptyList();
+            }
+            int height = recyclerView.getHeight() - recyclerView.getPaddingTop()
+                    - recyclerView.getPaddingBottom();
+            RecyclerViewPreloader.Request request = makePreloadRequest(adapter.getItem(position),
+                    height, requests, context);
+            return request != null ? Collections.singletonList(request)
+                    : Collections.emptyList();
+        }, MAX_PRELOAD_ITEM_COUNT));
+    }
+
+    /**
+     * @param height The height of the list.
+     */
+    public static RecyclerViewPreloader.Request makePreloadRequest(SizedImageItem image, int height,
+                                                                   GlideRequests requests,
+                                                                   Context context) {
+        int[] size = ImageLayout.getImageSize(image, ImageLayout.FILL_ORIENTATION_VERTICAL, height,
+                context);
+        if (size == null) {
+            return null;
+        }
+        return new RecyclerViewPreloader.Request(ImageUtils.makeImageWithRatioRequest(requests,
+                image), size[0], size[1]);
+    }
+
     static class ViewHolder extends RecyclerView.ViewHolder {
 
         @BindView(R.id.image)
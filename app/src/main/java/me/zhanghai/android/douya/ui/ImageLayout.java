@@ -90,4 +90,30 @@ public class ImageLayout extends FrameLayout {
     public void releaseImage() {
         mImageView.setImageDrawable(null);
     }
+
+    /**
+     * Get the size the image view will be measured to for an image, e.g. for preloading it.
+     *
+     * @param fillSize The width of this layout if filling horizontally, or the height otherwise.
+     * @return The width and height, or {@code null} if the image has no known size.
+     */
+    public static int[] getImageSize(SizedImageItem image, int fillOrientation, int fillSize,
+                                     Context context) {
+        int imageWidth = image.getMediumWidth();
+        int imageHeight = image.getMediumHeight();
+        if (imageWidth <= 0 || imageHeight <= 0 || fillSize <= 0) {
+            return null;
+        }
+        float ratio = (float) imageWidth / imageHeight;
+        // Same as RatioImageView.onMeasure() with the attributes in image_layout.xml.
+        if (fillOrientation == FILL_ORIENTATION_VERTICAL) {
+            int width = Math.max(Math.round(ratio * fillSize),
+                    context.getResources().getDimensionPixelSize(R.dimen.image_min_width));
+            return new int[] { width, fillSize };
+        } else {
+            int height = Math.min(Math.round(fillSize / ratio),
+                    context.getResources().getDimensionPixelSize(R.dimen.image_max_height));
+            return new int[] { fillSize, height };
+        }
+    }
 }
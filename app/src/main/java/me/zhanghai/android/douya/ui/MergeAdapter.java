@@ -14,20 +14,38 @@ import java.util.List;
 
 import me.zhanghai.android.douya.util.LogUtils;
 
+/**
+ * An adapter that concatenates its child adapters.
+ * <p>
+ * Item positions are resolved with a binary search over the starting positions of child adapters,
+ * which are kept up to date with the notifications from child adapters. So child adapters must
+ * notify any change to their item count.
+ */
 public class MergeAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
+    // Item ids of child adapters have the adapter index mixed into their high bits, so that they
+    // are unique across child adapters as long as they don't use those bits themselves.
+    private static final int ADAPTER_INDEX_SHIFT = 56;
+
     @NonNull
     private final RecyclerView.Adapter[] mAdapters;
 
+    // mAdapterStartPositions[i] is the position of the first item of adapter i, and the last
+    // element is the total item count.
+    @NonNull
+    private final int[] mAdapterStartPositions;
+
     @NonNull
     private final SparseIntArray mItemViewTypeToAdapterIndexMap = new SparseIntArray();
 
     public MergeAdapter(@NonNull RecyclerView.Adapter... adapters) {
 
         mAdapters = adapters;
+        mAdapterStartPositions = new int[mAdapters.length + 1];
+        updateAdapterStartPositions();
 
-        for (RecyclerView.Adapter adapter : mAdapters) {
-            adapter.registerAdapterDataObserver(new AdapterDataObserver(adapter));
+        for (int i = 0; i < mAdapters.length; ++i) {
+            mAdapters[i].registerAdapterDataObserver(new AdapterDataObserver(i));
         }
 
         boolean hasStableIds = true;
@@ -52,41 +70,27 @@ public class MergeAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 
     @Override
     public int getItemCount() {
-        int count = 0;
-        for (RecyclerView.Adapter adapter : mAdapters) {
-            count += adapter.getItemCount();
-        }
-        return count;
+        return mAdapterStartPositions[mAdapters.length];
     }
 
     @Override
     public long getItemId(int position) {
-        int adapterIndex = 0;
-        for (RecyclerView.Adapter adapter : mAdapters) {
-            int count = adapter.getItemCount();
-            if (position < count) {
-                return 31 * adapterIndex + adapter.getItemId(position);
-            }
-            position -= count;
-            ++adapterIndex;
-        }
-        throw new IllegalStateException("Unknown position: " + position);
+        int adapterIndex = getAdapterIndexForPosition(position);
+        long childItemId = mAdapters[adapterIndex].getItemId(position
+                - mAdapterStartPositions[adapterIndex]);
+        // XOR keeps the mapping one-to-one within each child adapter, even for negative ids.
+        return childItemId ^ ((long) adapterIndex << ADAPTER_INDEX_SHIFT);
     }
 
     @Override
     public int getItemViewType(int position) {
-        int adapterIndex = 0;
-        for (RecyclerView.Adapter adapter : mAdapters) {
-            int count = adapter.getItemCount();
-            if (position < count) {
-                int itemViewType = (adapterIndex << 16) + adapter.getItemViewType(position);
-                mItemViewTypeToAdapterIndexMap.put(itemViewType, adapterIndex);
-                return itemViewType;
-            }
-            position -= count;
-            ++adapterIndex;
+        int adapterIndex = getAdapterIndexForPosition(position);
+        int itemViewType = (adapterIndex << 16) + mAdapters[adapterIndex].getItemViewType(
+                position - mAdapterStartPositions[adapterIndex]);
+        if (mItemViewTypeToAdapterIndexMap.indexOfKey(itemViewType) < 0) {
+            mItemViewTypeToAdapterIndexMap.put(itemViewType, adapterIndex);
         }
-        throw new IllegalStateException("Unknown position: " + position);
+        return itemViewType;
     }
 
     @NonNull
@@ -98,31 +102,19 @@ public class MergeAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        for (RecyclerView.Adapter adapter : mAdapters) {
-            int count = adapter.getItemCount();
-            if (position < count) {
-                //noinspection unchecked
-                adapter.onBindViewHolder(holder, position);
-                return;
-            }
-            position -= count;
-        }
-        throw new IllegalStateException("Unknown position: " + position);
+        int adapterIndex = getAdapterIndexForPosition(position);
+        //noinspection unchecked
+        mAdapters[adapterIndex].onBindViewHolder(holder, position
+                - mAdapterStartPositions[adapterIndex]);
     }
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position,
                                  @NonNull List<Object> payloads) {
-        for (RecyclerView.Adapter adapter : mAdapters) {
-            int count = adapter.getItemCount();
-            if (position < count) {
-                //noinspection unchecked
-                adapter.onBindViewHolder(holder, position, payloads);
-                return;
-            }
-            position -= count;
-        }
-        throw new IllegalStateException("Unknown position: " + position);
+        int adapterIndex = getAdapterIndexForPosition(position);
+        //noinspection unchecked
+        mAdapters[adapterIndex].onBindViewHolder(holder, position
+                - mAdapterStartPositions[adapterIndex], payloads);
     }
 
     @Override
@@ -132,48 +124,28 @@ public class MergeAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
         mAdapters[adapterIndex].onViewRecycled(holder);
     }
 
+    // The adapter position of a view holder can be unavailable in the following callbacks, so the
+    // adapter is looked up by view type instead.
+
     @Override
     public boolean onFailedToRecycleView(@NonNull RecyclerView.ViewHolder holder) {
-        int position = holder.getAdapterPosition();
-        for (RecyclerView.Adapter adapter : mAdapters) {
-            int count = adapter.getItemCount();
-            if (position < count) {
-                //noinspection unchecked
-                return adapter.onFailedToRecycleView(holder);
-            }
-            position -= count;
-        }
-        throw new IllegalStateException("Unknown position: " + position);
+        int adapterIndex = getAdapterIndexForViewType(holder.getItemViewType());
+        //noinspection unchecked
+        return mAdapters[adapterIndex].onFailedToRecycleView(holder);
     }
 
     @Override
     public void onViewAttachedToWindow(@NonNull RecyclerView.ViewHolder holder) {
-        int position = holder.getAdapterPosition();
-        for (RecyclerView.Adapter adapter : mAdapters) {
-            int count = adapter.getItemCount();
-            if (position < count) {
-                //noinspection unchecked
-                adapter.onViewAttachedToWindow(holder);
-                return;
-            }
-            position -= count;
-        }
-        throw new IllegalStateException("Unknown position: " + position);
+        int adapterIndex = getAdapterIndexForViewType(holder.getItemViewType());
+        //noinspection unchecked
+        mAdapters[adapterIndex].onViewAttachedToWindow(holder);
     }
 
     @Override
     public void onViewDetachedFromWindow(@NonNull RecyclerView.ViewHolder holder) {
-        int position = holder.getAdapterPosition();
-        for (RecyclerView.Adapter adapter : mAdapters) {
-            int count = adapter.getItemCount();
-            if (position < count) {
-                //noinspection unchecked
-                adapter.onViewDetachedFromWindow(holder);
-                return;
-            }
-            position -= count;
-        }
-        throw new IllegalStateException("Unknown position: " + position);
+        int adapterIndex = getAdapterIndexForViewType(holder.getItemViewType());
+        //noinspection unchecked
+        mAdapters[adapterIndex].onViewDetachedFromWindow(holder);
     }
 
     @Override
@@ -190,6 +162,39 @@ public class MergeAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
         }
     }
 
+    private void updateAdapterStartPositions() {
+        int position = 0;
+        for (int i = 0; i < mAdapters.length; ++i) {
+            mAdapterStartPositions[i] = position;
+            position += mAdapters[i].getItemCount();
+        }
+        mAdapterStartPositions[mAdapters.length] = position;
+    }
+
+    private void offsetAdapterStartPositions(int adapterIndex, int itemCountChange) {
+        for (int i = adapterIndex + 1; i < mAdapterStartPositions.length; ++i) {
+            mAdapterStartPositions[i] += itemCountChange;
+        }
+    }
+
+    private int getAdapterIndexForPosition(int position) {
+        if (position < 0 || position >= getItemCount()) {
+            throw new IllegalStateException("Unknown position: " + position);
+        }
+        // Find the last adapter starting at or before position, which skips empty adapters.
+        int low = 0;
+        int high = mAdapters.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (mAdapterStartPositions[middle] <= position) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
     private int getAdapterIndexForViewType(int viewType) {
         int mapIndex = mItemViewTypeToAdapterIndexMap.indexOfKey(viewType);
         if (mapIndex < 0) {
@@ -200,14 +205,15 @@ public class MergeAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 
     private class AdapterDataObserver extends RecyclerView.AdapterDataObserver {
 
-        private final RecyclerView.Adapter mAdapter;
+        private final int mAdapterIndex;
 
-        public AdapterDataObserver(@NonNull RecyclerView.Adapter adapter) {
-            mAdapter = adapter;
+        public AdapterDataObserver(int adapterIndex) {
+            mAdapterIndex = adapterIndex;
         }
 
         @Override
         public void onChanged() {
+            updateAdapterStartPositions();
             notifyDataSetChanged();
         }
 
@@ -223,11 +229,13 @@ public class MergeAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 
         @Override
         public void onItemRangeInserted(int positionStart, int itemCount) {
+            offsetAdapterStartPositions(mAdapterIndex, itemCount);
             notifyItemRangeInserted(getItemPosition(positionStart), itemCount);
         }
 
         @Override
         public void onItemRangeRemoved(int positionStart, int itemCount) {
+            offsetAdapterStartPositions(mAdapterIndex, -itemCount);
             notifyItemRangeRemoved(getItemPosition(positionStart), itemCount);
         }
 
@@ -240,14 +248,7 @@ public class MergeAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
         }
 
         private int getItemPosition(int position) {
-            for (RecyclerView.Adapter adapter : mAdapters) {
-                if (adapter == mAdapter) {
-                    break;
-                } else {
-                    position += adapter.getItemCount();
-                }
-            }
-            return position;
+            return mAdapterStartPositions[mAdapterIndex] + position;
         }
     }
 }
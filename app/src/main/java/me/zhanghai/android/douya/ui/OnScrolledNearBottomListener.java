@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.ui;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import me.zhanghai.android.douya.content.MoreListResourceFragment;
+
+/**
+ * Notifies when the list is scrolled within a prefetch distance of its bottom, so that the next
+ * page can be loaded before the user reaches the end.
+ * <p>
+ * The distance is at least a number of screens, plus how far the list will scroll at its current
+ * speed while the next page is loading, capped at a few screens.
+ */
+public abstract class OnScrolledNearBottomListener extends RecyclerView.OnScrollListener {
+
+    private static final float DEFAULT_MIN_DISTANCE_SCREENS = 1;
+    private static final float MAX_DISTANCE_SCREENS = 4;
+
+    // Scroll events further apart than this don't belong to the same gesture or fling.
+    private static final long MAX_SCROLL_INTERVAL_MILLIS = 100;
+
+    private final float mMinDistanceScreens;
+
+    private long mLastScrollTime;
+    // In pixels per millisecond.
+    private float mVelocity;
+
+    public OnScrolledNearBottomListener() {
+        this(DEFAULT_MIN_DISTANCE_SCREENS);
+    }
+
+    public OnScrolledNearBottomListener(float minDistanceScreens) {
+        mMinDistanceScreens = minDistanceScreens;
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            mVelocity = 0;
+        }
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy < 0) {
+            mVelocity = 0;
+            return;
+        }
+        if (dy > 0) {
+            updateVelocity(dy);
+        }
+        // Also checked upon layout with dy == 0, e.g. when a short page has been appended.
+        int extent = recyclerView.computeVerticalScrollExtent();
+        int remaining = recyclerView.computeVerticalScrollRange()
+                - recyclerView.computeVerticalScrollOffset() - extent;
+        float distance = extent * mMinDistanceScreens + mVelocity * getLoadLatencyMillis();
+        distance = Math.min(distance, extent * Math.max(mMinDistanceScreens,
+                MAX_DISTANCE_SCREENS));
+        if (remaining <= distance || !recyclerView.canScrollVertically(1)) {
+            onScrolledNearBottom();
+        }
+    }
+
+    private void updateVelocity(int dy) {
+        long time = SystemClock.uptimeMillis();
+        long interval = time - mLastScrollTime;
+        mLastScrollTime = time;
+        if (interval <= 0 || interval > MAX_SCROLL_INTERVAL_MILLIS) {
+            mVelocity = 0;
+            return;
+        }
+        // Smooth out uneven frame intervals.
+        mVelocity = (mVelocity + (float) dy / interval) / 2;
+    }
+
+    /**
+     * @return The expected time to load the next page.
+     */
+    protected long getLoadLatencyMillis() {
+        return MoreListResourceFragment.getLoadLatencyMillis();
+    }
+
+    public abstract void onScrolledNearBottom();
+}
@@ -5,8 +5,12 @@
 
 package me.zhanghai.android.douya.ui;
 
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
@@ -16,9 +20,18 @@ import java.util.List;
 public abstract class SimpleAdapter<T, VH extends RecyclerView.ViewHolder>
         extends RecyclerView.Adapter<VH> {
 
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
     @NonNull
     private final List<T> mList = new ArrayList<>();
 
+    @Nullable
+    private DiffUtil.ItemCallback<T> mDiffItemCallback;
+
+    @Nullable
+    private List<T> mPendingList;
+    private int mPendingListGeneration;
+
     public SimpleAdapter() {
         this(null);
     }
@@ -34,46 +47,119 @@ public abstract class SimpleAdapter<T, VH extends RecyclerView.ViewHolder>
         return mList;
     }
 
+    /**
+     * Set the callback for diffing items, so that {@link #replace(Collection)} can dispatch
+     * granular updates calculated in background instead of calling {@link #notifyDataSetChanged()},
+     * and {@link #set(int, Object)} can dispatch a change payload.
+     */
+    public void setDiffItemCallback(@Nullable DiffUtil.ItemCallback<T> diffItemCallback) {
+        mDiffItemCallback = diffItemCallback;
+    }
+
     public void addAll(@NonNull Collection<? extends T> collection) {
+        applyPendingList();
         int oldSize = mList.size();
         mList.addAll(collection);
         notifyItemRangeInserted(oldSize, collection.size());
     }
 
     public void replace(@NonNull Collection<? extends T> collection) {
+        List<T> newList = new ArrayList<>(collection);
+        DiffUtil.ItemCallback<T> diffItemCallback = mDiffItemCallback;
+        if (diffItemCallback == null || mList.isEmpty() || newList.isEmpty()) {
+            cancelPendingList();
+            int oldSize = mList.size();
+            mList.clear();
+            mList.addAll(newList);
+            if (oldSize == 0) {
+                notifyItemRangeInserted(0, newList.size());
+            } else if (newList.isEmpty()) {
+                notifyItemRangeRemoved(0, oldSize);
+            } else {
+                notifyDataSetChanged();
+            }
+            return;
+        }
+        List<T> oldList = new ArrayList<>(mList);
+        mPendingList = newList;
+        int generation = ++mPendingListGeneration;
+        AsyncTask.THREAD_POOL_EXECUTOR.execute(() -> {
+            DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(new ListDiffCallback<>(oldList,
+                    newList, diffItemCallback));
+            sMainHandler.post(() -> {
+                if (generation != mPendingListGeneration) {
+                    // Superseded by another replace(), or already applied by a mutation.
+                    return;
+                }
+                mPendingList = null;
+                mList.clear();
+                mList.addAll(newList);
+                diffResult.dispatchUpdatesTo(this);
+            });
+        });
+    }
+
+    private void cancelPendingList() {
+        if (mPendingList != null) {
+            mPendingList = null;
+            ++mPendingListGeneration;
+        }
+    }
+
+    /*
+     * Positions passed to mutations are relative to the latest list, so a pending list must be
+     * applied before them.
+     */
+    private void applyPendingList() {
+        if (mPendingList == null) {
+            return;
+        }
+        List<T> pendingList = mPendingList;
+        cancelPendingList();
         mList.clear();
-        mList.addAll(collection);
+        mList.addAll(pendingList);
         notifyDataSetChanged();
     }
 
     public void add(int position, @Nullable T item) {
+        applyPendingList();
         mList.add(position, item);
         notifyItemInserted(position);
     }
 
     public void add(@Nullable T item) {
+        applyPendingList();
         add(mList.size(), item);
     }
 
     public void set(int position, @Nullable T item) {
-        mList.set(position, item);
-        notifyItemChanged(position);
+        applyPendingList();
+        T oldItem = mList.set(position, item);
+        Object payload = null;
+        if (mDiffItemCallback != null && oldItem != null && item != null && oldItem != item
+                && mDiffItemCallback.areItemsTheSame(oldItem, item)) {
+            payload = mDiffItemCallback.getChangePayload(oldItem, item);
+        }
+        notifyItemChanged(position, payload);
     }
 
     @Nullable
     public T remove(int position) {
+        applyPendingList();
         T item = mList.remove(position);
         notifyItemRemoved(position);
         return item;
     }
 
     public void clear() {
+        cancelPendingList();
         int oldSize = mList.size();
         mList.clear();
         notifyItemRangeRemoved(0, oldSize);
     }
 
     public int findPositionById(long id) {
+        applyPendingList();
         int count = getItemCount();
         for (int i = 0; i < count; ++i) {
             if (getItemId(i) == id) {
@@ -83,6 +169,15 @@ public abstract class SimpleAdapter<T, VH extends RecyclerView.ViewHolder>
         return RecyclerView.NO_POSITION;
     }
 
+    /**
+     * Like {@link #notifyItemChanged(int)}, but with the position relative to the latest list
+     * passed to {@link #replace(Collection)}.
+     */
+    public void notifyListItemChanged(int position) {
+        applyPendingList();
+        notifyItemChanged(position);
+    }
+
     public void notifyItemChangedById(long id) {
         int position = findPositionById(id);
         if (position != RecyclerView.NO_POSITION) {
@@ -109,4 +204,75 @@ public abstract class SimpleAdapter<T, VH extends RecyclerView.ViewHolder>
     public int getItemCount() {
         return mList.size();
     }
+
+    protected static boolean hasOnlyPayload(@NonNull List<Object> payloads,
+                                            @NonNull Object payload) {
+        if (payloads.isEmpty()) {
+            return false;
+        }
+        for (Object object : payloads) {
+            if (object != payload) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class ListDiffCallback<T> extends DiffUtil.Callback {
+
+        @NonNull
+        private final List<T> mOldList;
+        @NonNull
+        private final List<T> mNewList;
+        @NonNull
+        private final DiffUtil.ItemCallback<T> mItemCallback;
+
+        public ListDiffCallback(@NonNull List<T> oldList, @NonNull List<T> newList,
+                                @NonNull DiffUtil.ItemCallback<T> itemCallback) {
+            mOldList = oldList;
+            mNewList = newList;
+            mItemCallback = itemCallback;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return mOldList.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return mNewList.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            T oldItem = mOldList.get(oldItemPosition);
+            T newItem = mNewList.get(newItemPosition);
+            if (oldItem == null || newItem == null) {
+                return oldItem == newItem;
+            }
+            return mItemCallback.areItemsTheSame(oldItem, newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            T oldItem = mOldList.get(oldItemPosition);
+            T newItem = mNewList.get(newItemPosition);
+            if (oldItem == null || newItem == null) {
+                return oldItem == newItem;
+            }
+            return mItemCallback.areContentsTheSame(oldItem, newItem);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            T oldItem = mOldList.get(oldItemPosition);
+            T newItem = mNewList.get(newItemPosition);
+            if (oldItem == null || newItem == null) {
+                return null;
+            }
+            return mItemCallback.getChangePayload(oldItem, newItem);
+        }
+    }
 }
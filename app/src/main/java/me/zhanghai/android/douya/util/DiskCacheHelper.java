@@ -12,9 +12,18 @@ import com.google.gson.reflect.TypeToken;
 
 import java.io.File;
 import java.lang.reflect.Type;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import me.zhanghai.android.douya.BuildConfig;
 
@@ -26,7 +35,10 @@ public class DiskCacheHelper {
     private static final Object DISK_CACHE_LOCK = new Object();
     private static volatile DiskCache sDiskCache;
 
-    private static final ExecutorService sExecutorService = Executors.newSingleThreadExecutor();
+    private static final int THREAD_COUNT = 3;
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 30;
+
+    private static final KeyedExecutor sExecutor = new KeyedExecutor();
 
     private DiskCacheHelper() {}
 
@@ -42,14 +54,18 @@ public class DiskCacheHelper {
         return sDiskCache;
     }
 
-    private static void executeAsync(Runnable runnable) {
+    private static void executeAsync(String key, boolean isRead, Runnable runnable) {
         try {
-            sExecutorService.execute(runnable);
+            sExecutor.execute(key, isRead, runnable);
         } catch (RejectedExecutionException e) {
             e.printStackTrace();
         }
     }
 
+    private static void executeExclusivelyAsync(Runnable runnable) {
+        executeAsync(null, false, runnable);
+    }
+
     private static <T> void deliverValue(Handler handler, final Callback<T> callback,
                                          final T value) {
         handler.post(new Runnable() {
@@ -62,7 +78,7 @@ public class DiskCacheHelper {
 
     public static void getString(final String key, final Handler handler,
                                  final Callback<String> callback, final Context context) {
-        executeAsync(new Runnable() {
+        executeAsync(key, true, new Runnable() {
             @Override
             public void run() {
                 DiskCache diskCache = get(context);
@@ -74,7 +90,7 @@ public class DiskCacheHelper {
 
     public static <T> void getGson(final String key, final Type type, final Handler handler,
                                    final Callback<T> callback, final Context context) {
-        executeAsync(new Runnable() {
+        executeAsync(key, true, new Runnable() {
             @Override
             public void run() {
                 DiskCache diskCache = get(context);
@@ -90,7 +106,7 @@ public class DiskCacheHelper {
     }
 
     public static void putBytes(final String key, final byte[] value, final Context context) {
-        executeAsync(new Runnable() {
+        executeAsync(key, false, new Runnable() {
             @Override
             public void run() {
                 DiskCache diskCache = get(context);
@@ -102,7 +118,7 @@ public class DiskCacheHelper {
     }
 
     public static void putString(final String key, final String value, final Context context) {
-        executeAsync(new Runnable() {
+        executeAsync(key, false, new Runnable() {
             @Override
             public void run() {
                 DiskCache diskCache = get(context);
@@ -115,7 +131,7 @@ public class DiskCacheHelper {
 
     public static <T> void putGson(final String key, final T value, final Type type,
                                    final Context context) {
-        executeAsync(new Runnable() {
+        executeAsync(key, false, new Runnable() {
             @Override
             public void run() {
                 DiskCache diskCache = get(context);
@@ -132,7 +148,7 @@ public class DiskCacheHelper {
 
     public static void remove(final String key, final Handler handler,
                               final Callback<Boolean> callback, final Context context) {
-        executeAsync(new Runnable() {
+        executeAsync(key, false, new Runnable() {
             @Override
             public void run() {
                 DiskCache diskCache = get(context);
@@ -144,7 +160,7 @@ public class DiskCacheHelper {
     }
 
     public static void remove(final String key, final Context context) {
-        executeAsync(new Runnable() {
+        executeAsync(key, false, new Runnable() {
             @Override
             public void run() {
                 DiskCache diskCache = get(context);
@@ -156,7 +172,7 @@ public class DiskCacheHelper {
     }
 
     public static void delete(final Context context) {
-        executeAsync(new Runnable() {
+        executeExclusivelyAsync(new Runnable() {
             @Override
             public void run() {
                 DiskCache diskCache = get(context);
@@ -168,7 +184,7 @@ public class DiskCacheHelper {
     }
 
     public static void close(final Context context) {
-        executeAsync(new Runnable() {
+        executeExclusivelyAsync(new Runnable() {
             @Override
             public void run() {
                 DiskCache diskCache = get(context);
@@ -178,4 +194,94 @@ public class DiskCacheHelper {
             }
         });
     }
+
+    /**
+     * Runs tasks for different keys in parallel on a small pool, while tasks for the same key run
+     * one at a time in submission order. Pending reads start before pending writes, and tasks
+     * without a key run exclusively once the running tasks finish.
+     */
+    private static class KeyedExecutor {
+
+        private final ThreadPoolExecutor mExecutor;
+        private final AtomicLong mNextSequence = new AtomicLong();
+        private final ReadWriteLock mExclusiveLock = new ReentrantReadWriteLock();
+
+        // Pending tasks of keys that have a task running, guarded by itself.
+        private final Map<String, Queue<Task>> mKeyQueues = new HashMap<>();
+
+        public KeyedExecutor() {
+            // A priority queue is unbounded so the pool never grows beyond its core size.
+            mExecutor = new ThreadPoolExecutor(THREAD_COUNT, THREAD_COUNT,
+                    THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new PriorityBlockingQueue<Runnable>());
+            mExecutor.allowCoreThreadTimeOut(true);
+        }
+
+        public void execute(String key, boolean isRead, Runnable runnable) {
+            Task task = new Task(key, isRead, mNextSequence.getAndIncrement(), runnable);
+            if (key != null) {
+                synchronized (mKeyQueues) {
+                    Queue<Task> keyQueue = mKeyQueues.get(key);
+                    if (keyQueue != null) {
+                        keyQueue.add(task);
+                        return;
+                    }
+                    mKeyQueues.put(key, new ArrayDeque<Task>());
+                }
+            }
+            mExecutor.execute(task);
+        }
+
+        private void onTaskFinished(Task task) {
+            if (task.mKey == null) {
+                return;
+            }
+            Task nextTask;
+            synchronized (mKeyQueues) {
+                Queue<Task> keyQueue = mKeyQueues.get(task.mKey);
+                nextTask = keyQueue.poll();
+                if (nextTask == null) {
+                    mKeyQueues.remove(task.mKey);
+                    return;
+                }
+            }
+            mExecutor.execute(nextTask);
+        }
+
+        private class Task implements Runnable, Comparable<Task> {
+
+            private final String mKey;
+            private final boolean mIsRead;
+            private final long mSequence;
+            private final Runnable mRunnable;
+
+            public Task(String key, boolean isRead, long sequence, Runnable runnable) {
+                mKey = key;
+                mIsRead = isRead;
+                mSequence = sequence;
+                mRunnable = runnable;
+            }
+
+            @Override
+            public void run() {
+                Lock lock = mKey != null ? mExclusiveLock.readLock()
+                        : mExclusiveLock.writeLock();
+                lock.lock();
+                try {
+                    mRunnable.run();
+                } finally {
+                    lock.unlock();
+                    onTaskFinished(this);
+                }
+            }
+
+            @Override
+            public int compareTo(Task other) {
+                if (mIsRead != other.mIsRead) {
+                    return mIsRead ? -1 : 1;
+                }
+                return Long.compare(mSequence, other.mSequence);
+            }
+        }
+    }
 }
@@ -7,19 +7,23 @@ package me.zhanghai.android.douya.util;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
-import me.zhanghai.android.douya.network.api.info.frodo.TimelineItem;
 import me.zhanghai.android.douya.network.api.info.frodo.Broadcast;
 import me.zhanghai.android.douya.network.api.info.frodo.CollectableItem;
 import me.zhanghai.android.douya.network.api.info.frodo.CompleteCollectableItem;
+import me.zhanghai.android.douya.network.api.info.frodo.Image;
 import me.zhanghai.android.douya.network.api.info.frodo.Notification;
+import me.zhanghai.android.douya.network.api.info.frodo.SimpleUser;
+import me.zhanghai.android.douya.network.api.info.frodo.SizedImage;
+import me.zhanghai.android.douya.network.api.info.frodo.TimelineList;
 
 public class GsonHelper {
 
@@ -28,91 +32,90 @@ public class GsonHelper {
     static {
         GsonBuilder builder = new GsonBuilder()
                 .serializeNulls()
-                .registerTypeAdapter(int.class, new IntegerDeserializer())
-                .registerTypeAdapter(Integer.class, new IntegerDeserializer())
-                .registerTypeAdapter(long.class, new LongDeserializer())
-                .registerTypeAdapter(Long.class, new LongDeserializer())
-                .registerTypeAdapter(float.class, new FloatDeserializer())
-                .registerTypeAdapter(Float.class, new FloatDeserializer())
-                .registerTypeAdapter(double.class, new DoubleDeserializer())
-                .registerTypeAdapter(Double.class, new DoubleDeserializer())
-                .registerTypeAdapter(CollectableItem.class, new CollectableItem.Deserializer())
-                .registerTypeAdapter(CompleteCollectableItem.class,
-                        new CompleteCollectableItem.Deserializer());
+                .registerTypeAdapter(int.class, new IntegerTypeAdapter())
+                .registerTypeAdapter(Integer.class, new IntegerTypeAdapter())
+                .registerTypeAdapter(long.class, new LongTypeAdapter())
+                .registerTypeAdapter(Long.class, new LongTypeAdapter())
+                .registerTypeAdapter(float.class, new FloatTypeAdapter())
+                .registerTypeAdapter(Float.class, new FloatTypeAdapter())
+                .registerTypeAdapter(double.class, new DoubleTypeAdapter())
+                .registerTypeAdapter(Double.class, new DoubleTypeAdapter())
+                .registerTypeAdapterFactory(new CollectableItem.TypeAdapterFactory())
+                .registerTypeAdapterFactory(new CompleteCollectableItem.TypeAdapterFactory())
+                .registerTypeAdapterFactory(new SimpleUser.TypeAdapterFactory())
+                .registerTypeAdapterFactory(new Image.TypeAdapterFactory())
+                .registerTypeAdapterFactory(new SizedImage.TypeAdapterFactory());
         GSON = builder.create();
         builder
-                .registerTypeAdapter(Notification.class, new Notification.Deserializer())
-                .registerTypeAdapter(Broadcast.class, new Broadcast.Deserializer());
+                .registerTypeAdapterFactory(new Notification.TypeAdapterFactory())
+                .registerTypeAdapterFactory(new Broadcast.TypeAdapterFactory())
+                .registerTypeAdapterFactory(new TimelineList.TypeAdapterFactory());
         GSON_NETWORK = builder.create();
     }
 
     private GsonHelper() {}
 
-    private static class IntegerDeserializer implements JsonDeserializer<Integer> {
+    /**
+     * Reads numbers leniently: {@code null} and empty strings are read as {@code null}, and
+     * numbers encoded as strings are accepted.
+     */
+    private static abstract class NumberTypeAdapter<T extends Number> extends TypeAdapter<T> {
 
         @Override
-        public Integer deserialize(JsonElement json, Type typeOfT,
-                                   JsonDeserializationContext context) throws JsonParseException {
-            if (json.isJsonNull()) {
+        public void write(JsonWriter out, T value) throws IOException {
+            out.value(value);
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            JsonToken token = in.peek();
+            if (token == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            String string = in.nextString();
+            if (token == JsonToken.STRING && string.isEmpty()) {
                 return null;
-            } else if (json.isJsonPrimitive()) {
-                JsonPrimitive jsonPrimitive = (JsonPrimitive) json;
-                if (jsonPrimitive.isString() && jsonPrimitive.getAsString().isEmpty()) {
-                    return null;
-                }
             }
-            return json.getAsInt();
+            try {
+                return fromNumber(new LazilyParsedNumber(string));
+            } catch (NumberFormatException e) {
+                throw new JsonSyntaxException(e);
+            }
         }
+
+        protected abstract T fromNumber(Number number);
     }
 
-    private static class LongDeserializer implements JsonDeserializer<Long> {
+    private static class IntegerTypeAdapter extends NumberTypeAdapter<Integer> {
 
         @Override
-        public Long deserialize(JsonElement json, Type typeOfT,
-                                JsonDeserializationContext context) throws JsonParseException {
-            if (json.isJsonNull()) {
-                return null;
-            } else if (json.isJsonPrimitive()) {
-                JsonPrimitive jsonPrimitive = (JsonPrimitive) json;
-                if (jsonPrimitive.isString() && jsonPrimitive.getAsString().isEmpty()) {
-                    return null;
-                }
-            }
-            return json.getAsLong();
+        protected Integer fromNumber(Number number) {
+            return number.intValue();
         }
     }
 
-    private static class FloatDeserializer implements JsonDeserializer<Float> {
+    private static class LongTypeAdapter extends NumberTypeAdapter<Long> {
 
         @Override
-        public Float deserialize(JsonElement json, Type typeOfT,
-                                JsonDeserializationContext context) throws JsonParseException {
-            if (json.isJsonNull()) {
-                return null;
-            } else if (json.isJsonPrimitive()) {
-                JsonPrimitive jsonPrimitive = (JsonPrimitive) json;
-                if (jsonPrimitive.isString() && jsonPrimitive.getAsString().isEmpty()) {
-                    return null;
-                }
-            }
-            return json.getAsFloat();
+        protected Long fromNumber(Number number) {
+            return number.longValue();
         }
     }
 
-    private static class DoubleDeserializer implements JsonDeserializer<Double> {
+    private static class FloatTypeAdapter extends NumberTypeAdapter<Float> {
 
         @Override
-        public Double deserialize(JsonElement json, Type typeOfT,
-                                 JsonDeserializationContext context) throws JsonParseException {
-            if (json.isJsonNull()) {
-                return null;
-            } else if (json.isJsonPrimitive()) {
-                JsonPrimitive jsonPrimitive = (JsonPrimitive) json;
-                if (jsonPrimitive.isString() && jsonPrimitive.getAsString().isEmpty()) {
-                    return null;
-                }
-            }
-            return json.getAsDouble();
+        protected Float fromNumber(Number number) {
+            return number.floatValue();
+        }
+    }
+
+    private static class DoubleTypeAdapter extends NumberTypeAdapter<Double> {
+
+        @Override
+        protected Double fromNumber(Number number) {
+            return number.doubleValue();
         }
     }
 }
@@ -24,6 +24,8 @@ import java.io.File;
 
 import me.zhanghai.android.douya.R;
 import me.zhanghai.android.douya.glide.GlideApp;
+import me.zhanghai.android.douya.glide.GlideRequest;
+import me.zhanghai.android.douya.glide.GlideRequests;
 import me.zhanghai.android.douya.network.api.info.frodo.Photo;
 import me.zhanghai.android.douya.ui.ImageItem;
 import me.zhanghai.android.douya.ui.SizedImageItem;
@@ -36,12 +38,19 @@ public class ImageUtils {
             .dontTransform();
 
     public static void loadAvatar(ImageView view, String url) {
-        GlideApp.with(view.getContext())
-                .load(url)
-                .apply(REQUEST_OPTIONS_LOAD_AVATAR)
+        makeAvatarRequest(GlideApp.with(view.getContext()), url)
                 .into(view);
     }
 
+    /**
+     * Same as the request in {@link #loadAvatar(ImageView, String)}, e.g. for preloading.
+     */
+    public static GlideRequest<Drawable> makeAvatarRequest(GlideRequests requests, String url) {
+        return requests
+                .load(url)
+                .apply(REQUEST_OPTIONS_LOAD_AVATAR);
+    }
+
     private static final RequestOptions REQUEST_OPTIONS_LOAD_ITEM_BACKDROP =
             new RequestOptions()
                     .dontTransform();
@@ -161,15 +170,22 @@ public class ImageUtils {
     }
 
     public static void loadImage(ImageView view, String url, RequestListener<Drawable> listener) {
-        GlideApp.with(view.getContext())
-                .load(url)
-                .apply(REQUEST_OPTIONS_LOAD_IMAGE)
+        makeImageRequest(GlideApp.with(view.getContext()), url)
                 .transition(DrawableTransitionOptions.withCrossFade(ViewUtils.getShortAnimTime(
                         view)))
                 .listener(listener)
                 .into(view);
     }
 
+    /**
+     * Same as the request in {@link #loadImage(ImageView, String)}, e.g. for preloading.
+     */
+    public static GlideRequest<Drawable> makeImageRequest(GlideRequests requests, String url) {
+        return requests
+                .load(url)
+                .apply(REQUEST_OPTIONS_LOAD_IMAGE);
+    }
+
     public static void loadImage(ImageView view, String url) {
         loadImage(view, url, null);
     }
@@ -197,14 +213,23 @@ public class ImageUtils {
     public static void loadImageWithRatio(RatioImageView view,
                                           SizedImageItem image) {
         view.setRatio(image.getMediumWidth(), image.getMediumHeight());
-        GlideApp.with(view.getContext())
-                .load(image.getMediumUrl())
-                .apply(REQUEST_OPTIONS_LOAD_IMAGE_WITH_RATIO)
+        makeImageWithRatioRequest(GlideApp.with(view.getContext()), image)
                 .transition(DrawableTransitionOptions.withCrossFade(ViewUtils.getShortAnimTime(
                         view)))
                 .into(view);
     }
 
+    /**
+     * Same as the request in {@link #loadImageWithRatio(RatioImageView, SizedImageItem)}, e.g. for
+     * preloading.
+     */
+    public static GlideRequest<Drawable> makeImageWithRatioRequest(GlideRequests requests,
+                                                                   SizedImageItem image) {
+        return requests
+                .load(image.getMediumUrl())
+                .apply(REQUEST_OPTIONS_LOAD_IMAGE_WITH_RATIO);
+    }
+
     public static void loadImageWithRatio(RatioImageView view, Photo photo) {
         loadImageWithRatio(view, photo.image);
     }
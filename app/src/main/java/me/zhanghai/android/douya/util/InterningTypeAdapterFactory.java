@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.util;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Type adapter factory that canonicalizes values read by the default adapter, so that equal values
+ * read anywhere in the process share a single instance while any of them is still referenced.
+ * <p>
+ * Values are looked up by a key, and a value read is only replaced with the canonical instance if
+ * they are equal, so that no instance ever changes after being handed out. Otherwise the value read
+ * becomes the canonical instance for its key. Values must therefore not be modified after being
+ * read.
+ */
+public abstract class InterningTypeAdapterFactory<V> implements TypeAdapterFactory {
+
+    private final Class<V> mClass;
+
+    private final Map<Object, ValueReference<V>> mValues = new HashMap<>();
+    private final ReferenceQueue<V> mReferenceQueue = new ReferenceQueue<>();
+
+    public InterningTypeAdapterFactory(Class<V> clazz) {
+        mClass = clazz;
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+
+        if (type.getRawType() != mClass) {
+            return null;
+        }
+
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        return new TypeAdapter<T>() {
+
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                T value = delegate.read(in);
+                if (value == null) {
+                    return null;
+                }
+                //noinspection unchecked
+                return (T) intern((V) value);
+            }
+        };
+    }
+
+    private V intern(V value) {
+        Object key = getKey(value);
+        if (key == null) {
+            return value;
+        }
+        synchronized (mValues) {
+            removeClearedReferences();
+            ValueReference<V> reference = mValues.get(key);
+            V canonicalValue = reference != null ? reference.get() : null;
+            if (canonicalValue != null && areEqual(canonicalValue, value)) {
+                return canonicalValue;
+            }
+            mValues.put(key, new ValueReference<>(key, value, mReferenceQueue));
+            return value;
+        }
+    }
+
+    private void removeClearedReferences() {
+        ValueReference<?> reference;
+        while ((reference = (ValueReference<?>) mReferenceQueue.poll()) != null) {
+            // The key may have been mapped to a newer value since.
+            if (mValues.get(reference.mKey) == reference) {
+                mValues.remove(reference.mKey);
+            }
+        }
+    }
+
+    /**
+     * @return The key to look up the canonical instance with, or {@code null} to keep the value as
+     *         is.
+     */
+    protected abstract Object getKey(V value);
+
+    protected abstract boolean areEqual(V value1, V value2);
+
+    private static class ValueReference<V> extends WeakReference<V> {
+
+        public final Object mKey;
+
+        public ValueReference(Object key, V value, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+
+            mKey = key;
+        }
+    }
+}
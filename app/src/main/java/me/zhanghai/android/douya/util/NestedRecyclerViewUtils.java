@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Set up horizontal lists nested in the items of another list, so that those created by the same
+ * outer adapter can share a {@link RecyclerView.RecycledViewPool}, and their first visible items
+ * are created during prefetch of the outer list.
+ * <p>
+ * Pools should be owned by the outer adapter instead of being kept globally, because recycled
+ * holders retain their views and thus the context.
+ */
+public class NestedRecyclerViewUtils {
+
+    // All our nested adapters have only the default view type.
+    private static final int VIEW_TYPE = 0;
+
+    private static final int MAX_RECYCLED_VIEWS = 16;
+
+    private NestedRecyclerViewUtils() {}
+
+    /**
+     * Create a pool to be shared by nested lists with the same adapter type.
+     */
+    @NonNull
+    public static RecyclerView.RecycledViewPool createPool() {
+        RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+        pool.setMaxRecycledViews(VIEW_TYPE, MAX_RECYCLED_VIEWS);
+        return pool;
+    }
+
+    /**
+     * Must be called on the main thread after a {@link LinearLayoutManager} is set.
+     *
+     * @param pool The pool to share, or {@code null} to keep the pool of this list.
+     */
+    public static void setUp(@NonNull RecyclerView recyclerView, int initialPrefetchItemCount,
+                             @Nullable RecyclerView.RecycledViewPool pool) {
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (layoutManager == null) {
+            throw new IllegalStateException("LayoutManager is not set");
+        }
+        layoutManager.setInitialPrefetchItemCount(initialPrefetchItemCount);
+        if (pool != null) {
+            recyclerView.setRecycledViewPool(pool);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.util;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Type adapter factory that post-processes values after they are read by the default adapter,
+ * without materializing an intermediate {@link com.google.gson.JsonElement} tree.
+ * <p>
+ * Nested values of the same class are read through this factory as well, so they are also
+ * post-processed.
+ */
+public abstract class PostProcessingTypeAdapterFactory<V> implements TypeAdapterFactory {
+
+    private final Class<V> mClass;
+
+    public PostProcessingTypeAdapterFactory(Class<V> clazz) {
+        mClass = clazz;
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+
+        if (type.getRawType() != mClass) {
+            return null;
+        }
+
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        return new TypeAdapter<T>() {
+
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                T value = delegate.read(in);
+                if (value != null) {
+                    //noinspection unchecked
+                    postProcess((V) value);
+                }
+                return value;
+            }
+        };
+    }
+
+    protected abstract void postProcess(V value);
+}
@@ -6,6 +6,8 @@
 package me.zhanghai.android.douya.util;
 
 import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 import android.view.View;
 
@@ -30,4 +32,28 @@ public class RecyclerViewUtils {
     public static boolean hasFirstChildReachedTop(RecyclerView recyclerView) {
         return hasFirstChildReachedTop(recyclerView, 0);
     }
+
+    /**
+     * Get the range of adapter positions of the children, which works with any layout manager.
+     *
+     * @return The first and last positions, or {@code null} if no child has a position.
+     */
+    @Nullable
+    public static int[] getVisibleAdapterPositionRange(@NonNull RecyclerView recyclerView) {
+        int firstPosition = Integer.MAX_VALUE;
+        int lastPosition = RecyclerView.NO_POSITION;
+        for (int i = 0, count = recyclerView.getChildCount(); i < count; ++i) {
+            View child = recyclerView.getChildAt(i);
+            int position = recyclerView.getChildAdapterPosition(child);
+            if (position == RecyclerView.NO_POSITION) {
+                continue;
+            }
+            firstPosition = Math.min(firstPosition, position);
+            lastPosition = Math.max(lastPosition, position);
+        }
+        if (lastPosition == RecyclerView.NO_POSITION) {
+            return null;
+        }
+        return new int[] { firstPosition, lastPosition };
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.benchmark;
+
+import com.google.gson.reflect.TypeToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import me.zhanghai.android.douya.network.api.info.frodo.Broadcast;
+import me.zhanghai.android.douya.network.api.info.frodo.Notification;
+import me.zhanghai.android.douya.network.api.info.frodo.NotificationList;
+import me.zhanghai.android.douya.network.api.info.frodo.TimelineList;
+import me.zhanghai.android.douya.util.DiskCache;
+import me.zhanghai.android.douya.util.GsonHelper;
+
+/**
+ * Round trips of the lists cached by HomeBroadcastListCache and NotificationListCache through
+ * {@link DiskCache} in a temporary directory.
+ * <p>
+ * The file system is the one of the machine running the benchmark, so results are only comparable
+ * between runs on the same machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DiskCacheBenchmark {
+
+    // Same as in DiskCacheHelper.
+    private static final int VERSION = 0;
+    private static final long MAX_SIZE = 2 * 1024 * 1024;
+
+    private static final int TIMELINE_PAGE_REPEAT_COUNT = 10;
+
+    private static final String KEY_BROADCAST_LIST = "broadcast_list";
+    private static final String KEY_NOTIFICATION_LIST = "notification_list";
+
+    private static final Type TYPE_BROADCAST_LIST = new TypeToken<List<Broadcast>>() {}.getType();
+    private static final Type TYPE_NOTIFICATION_LIST =
+            new TypeToken<List<Notification>>() {}.getType();
+
+    private File mDirectory;
+    private DiskCache mDiskCache;
+
+    private List<Broadcast> mBroadcastList;
+    private List<Notification> mNotificationList;
+
+    @Setup
+    public void setUp() throws IOException {
+        mDirectory = Files.createTempDirectory("douya-disk-cache").toFile();
+        mDiskCache = DiskCache.openOrThrow(mDirectory, VERSION, MAX_SIZE);
+        mBroadcastList = GsonHelper.GSON_NETWORK.fromJson(Fixtures.readTimelinePage(
+                TIMELINE_PAGE_REPEAT_COUNT), TimelineList.class).toBroadcastList();
+        mNotificationList = GsonHelper.GSON_NETWORK.fromJson(Fixtures.read(
+                Fixtures.NOTIFICATION_LIST), NotificationList.class).notifications;
+        // Make sure the get benchmarks always hit.
+        mDiskCache.putGsonOrThrow(KEY_BROADCAST_LIST, mBroadcastList, TYPE_BROADCAST_LIST);
+        mDiskCache.putGsonOrThrow(KEY_NOTIFICATION_LIST, mNotificationList,
+                TYPE_NOTIFICATION_LIST);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        // Also deletes the directory.
+        mDiskCache.deleteOrThrow();
+    }
+
+    @Benchmark
+    public void putBroadcastList() throws IOException {
+        mDiskCache.putGsonOrThrow(KEY_BROADCAST_LIST, mBroadcastList, TYPE_BROADCAST_LIST);
+    }
+
+    @Benchmark
+    public List<Broadcast> getBroadcastList() throws IOException {
+        return mDiskCache.getGsonOrThrow(KEY_BROADCAST_LIST, TYPE_BROADCAST_LIST);
+    }
+
+    @Benchmark
+    public void putNotificationList() throws IOException {
+        mDiskCache.putGsonOrThrow(KEY_NOTIFICATION_LIST, mNotificationList,
+                TYPE_NOTIFICATION_LIST);
+    }
+
+    @Benchmark
+    public List<Notification> getNotificationList() throws IOException {
+        return mDiskCache.getGsonOrThrow(KEY_NOTIFICATION_LIST, TYPE_NOTIFICATION_LIST);
+    }
+}
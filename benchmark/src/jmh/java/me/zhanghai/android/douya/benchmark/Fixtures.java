@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import me.zhanghai.android.douya.util.IoUtils;
+
+/**
+ * Frodo API responses as JSON resources, written after the shape of recorded responses.
+ */
+class Fixtures {
+
+    public static final String MOVIE = "movie.json";
+    public static final String NOTIFICATION_LIST = "notification_list.json";
+    public static final String TIMELINE = "timeline.json";
+
+    // Each item in the timeline fixture decodes into one broadcast.
+    public static final int TIMELINE_ITEM_COUNT = 3;
+
+    private static final List<String> ID_NAMES = Arrays.asList("id", "uid", "parent_id",
+            "reshare_id");
+    // Larger than any ID in the fixtures, so that IDs of different repeats never collide.
+    private static final long ID_OFFSET = 10_000_000_000L;
+
+    private Fixtures() {}
+
+    public static String read(String name) throws IOException {
+        try (InputStream inputStream = Fixtures.class.getClassLoader().getResourceAsStream(
+                name)) {
+            if (inputStream == null) {
+                throw new IOException("Fixture not found: " + name);
+            }
+            return IoUtils.inputStreamToString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads the timeline fixture with its items repeated, so that a page is about the size of one
+     * returned by the API.
+     * <p>
+     * Each repeat has its own IDs and URLs, so that the users and images in it aren't interned into
+     * those of another repeat, which would understate the allocation of decoding a page of distinct
+     * broadcasts.
+     */
+    public static String readTimelinePage(int repeatCount) throws IOException {
+        JsonObject timeline = new JsonParser().parse(read(TIMELINE)).getAsJsonObject();
+        JsonArray items = timeline.getAsJsonArray("items");
+        JsonArray pageItems = new JsonArray();
+        for (int i = 0; i < repeatCount; ++i) {
+            for (JsonElement item : items) {
+                pageItems.add(makeDistinct(item.deepCopy(), i));
+            }
+        }
+        timeline.add("items", pageItems);
+        timeline.addProperty("count", pageItems.size());
+        return timeline.toString();
+    }
+
+    private static JsonElement makeDistinct(JsonElement element, int repeat) {
+        if (repeat == 0) {
+            return element;
+        }
+        if (element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                JsonElement value = entry.getValue();
+                if (ID_NAMES.contains(entry.getKey()) && value.isJsonPrimitive()) {
+                    entry.setValue(makeIdDistinct(value.getAsJsonPrimitive(), repeat));
+                } else {
+                    entry.setValue(makeDistinct(value, repeat));
+                }
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            for (int i = 0, size = array.size(); i < size; ++i) {
+                array.set(i, makeDistinct(array.get(i), repeat));
+            }
+        } else if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isString()) {
+            String string = element.getAsString();
+            if (string.startsWith("https://") || string.startsWith("douban://")) {
+                return new JsonPrimitive(string + (string.contains("?") ? '&' : '?') + "repeat="
+                        + repeat);
+            }
+        }
+        return element;
+    }
+
+    private static JsonPrimitive makeIdDistinct(JsonPrimitive id, int repeat) {
+        if (id.isNumber()) {
+            return new JsonPrimitive(id.getAsLong() + repeat * ID_OFFSET);
+        }
+        String string = id.getAsString();
+        try {
+            // Numeric IDs in strings are still read as longs.
+            return new JsonPrimitive(String.valueOf(Long.parseLong(string) + repeat * ID_OFFSET));
+        } catch (NumberFormatException e) {
+            return new JsonPrimitive(string + "_" + repeat);
+        }
+    }
+}
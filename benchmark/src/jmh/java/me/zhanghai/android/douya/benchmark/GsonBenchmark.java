@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2019 Zhang Hai <Dreaming.in.Code.ZH@Gmail.com>
+ * All Rights Reserved.
+ */
+
+package me.zhanghai.android.douya.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+import me.zhanghai.android.douya.network.api.info.frodo.CollectableItem;
+import me.zhanghai.android.douya.network.api.info.frodo.CompleteCollectableItem;
+import me.zhanghai.android.douya.network.api.info.frodo.NotificationList;
+import me.zhanghai.android.douya.network.api.info.frodo.TimelineList;
+import me.zhanghai.android.douya.util.GsonHelper;
+
+/**
+ * Decoding of API responses with the same {@link com.google.gson.Gson} instances as the app.
+ * <p>
+ * Timeline decoding is reported per broadcast, so that {@code gc.alloc.rate.norm} from the GC
+ * profiler is the allocation per decoded broadcast.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GsonBenchmark {
+
+    private static final int TIMELINE_PAGE_REPEAT_COUNT = 10;
+    private static final int TIMELINE_PAGE_BROADCAST_COUNT = TIMELINE_PAGE_REPEAT_COUNT
+            * Fixtures.TIMELINE_ITEM_COUNT;
+
+    private String mTimelinePage;
+    private String mNotificationList;
+    private String mMovie;
+
+    @Setup
+    public void setUp() throws IOException {
+        mTimelinePage = Fixtures.readTimelinePage(TIMELINE_PAGE_REPEAT_COUNT);
+        mNotificationList = Fixtures.read(Fixtures.NOTIFICATION_LIST);
+        mMovie = Fixtures.read(Fixtures.MOVIE);
+        // Fail early instead of measuring a fixture that no longer decodes as expected.
+        int broadcastCount = decodeTimelinePage().toBroadcastList().size();
+        if (broadcastCount != TIMELINE_PAGE_BROADCAST_COUNT) {
+            throw new IllegalStateException("Timeline page decoded into " + broadcastCount
+                    + " broadcasts, expected " + TIMELINE_PAGE_BROADCAST_COUNT);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIMELINE_PAGE_BROADCAST_COUNT)
+    public TimelineList decodeTimelinePage() {
+        return GsonHelper.GSON_NETWORK.fromJson(mTimelinePage, TimelineList.class);
+    }
+
+    @Benchmark
+    public NotificationList decodeNotificationList() {
+        return GsonHelper.GSON_NETWORK.fromJson(mNotificationList, NotificationList.class);
+    }
+
+    @Benchmark
+    public CollectableItem decodeMovie() {
+        // Decoded as in ApiService.getItem(), which dispatches on the item type.
+        return GsonHelper.GSON_NETWORK.fromJson(mMovie, (Type) CompleteCollectableItem.class);
+    }
+}